@@ -0,0 +1,47 @@
+package com.clinic.project1;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * Starts the application without the web layer against its own in-memory H2 database, so benchmark
+     * states in one fork never share rows or cache regions.
+     */
+    public static ConfigurableApplicationContext start(String name, String... properties) {
+        return start(WebApplicationType.NONE, name, properties);
+    }
+
+    /**
+     * Same as {@link #start(String, String...)} but with the embedded web server listening on a random port. Admission
+     * control is off unless a benchmark turns it back on, since its 429s and 503s would be measured as bookings.
+     */
+    public static ConfigurableApplicationContext startWeb(String name, String... properties) {
+        List<String> allProperties = new ArrayList<>(List.of("server.port=0", "clinic.admission.enabled=false"));
+        allProperties.addAll(List.of(properties));
+        return start(WebApplicationType.SERVLET, name, allProperties.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, String name, String... properties) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> allProperties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.properties.hibernate.cache.region_prefix=" + name,
+                "spring.jpa.properties.hibernate.generate_statistics=false",
+                "clinic.data-dir=target/benchmark-data/" + name,
+                "logging.level.root=WARN"));
+        allProperties.addAll(List.of(properties));
+        // Passed as command-line arguments: builder properties are defaults, which application.properties overrides.
+        return new SpringApplicationBuilder(Project1Application.class)
+                .web(type)
+                .run(allProperties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+}
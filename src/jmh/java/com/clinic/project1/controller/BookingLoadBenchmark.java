@@ -0,0 +1,107 @@
+package com.clinic.project1.controller;
+
+import com.clinic.project1.BenchmarkContext;
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.model.command.create.CreateDoctorCommand;
+import com.clinic.project1.model.command.create.CreatePatientCommand;
+import com.clinic.project1.service.DoctorService;
+import com.clinic.project1.service.PatientService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booking storm against POST /api/v1/appointments over real HTTP, with Tomcat on platform threads or on
+ * virtual threads (the virtual-threads profile, Java 21+). Throughput gives requests/sec, sample time
+ * gives the p99. The fork traces pinned virtual threads so a synchronized section on the booking path
+ * shows up in the output.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+@Threads(400)
+@State(Scope.Benchmark)
+public class BookingLoadBenchmark {
+
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    @Param({"platform", "virtual"})
+    private String threading;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI appointmentsUri;
+    private int doctorId;
+    private int patientId;
+    private final AtomicLong bookingCount = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = threading.equals("virtual");
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21, running on " + Runtime.version());
+        }
+        context = BenchmarkContext.startWeb("booking" + threading,
+                "spring.profiles.active=" + (virtual ? "virtual-threads" : "default"));
+        doctorId = context.getBean(DoctorService.class).save(CreateDoctorCommand.builder()
+                .firstName("Busy")
+                .lastName("Doctor")
+                .specializationSet(Set.of(Specialization.FAMILY_MEDICINE))
+                .build()).getId();
+        patientId = context.getBean(PatientService.class).save(CreatePatientCommand.builder()
+                .firstName("Regular")
+                .lastName("Patient")
+                .disease(Disease.FLU)
+                .doctorId(doctorId)
+                .build()).getId();
+        String port = context.getEnvironment().getRequiredProperty("local.server.port");
+        appointmentsUri = URI.create("http://localhost:" + port + "/api/v1/appointments");
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int saveAppointment() throws IOException, InterruptedException {
+        String body = "{\"doctorId\":" + doctorId + ",\"patientId\":" + patientId
+                + ",\"date\":\"" + FIRST_SLOT.plusMinutes(bookingCount.getAndIncrement()) + "\"}";
+        HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(appointmentsUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Booking failed with status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
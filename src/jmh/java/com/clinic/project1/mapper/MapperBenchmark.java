@@ -0,0 +1,85 @@
+package com.clinic.project1.mapper;
+
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.model.Appointment;
+import com.clinic.project1.model.Doctor;
+import com.clinic.project1.model.Patient;
+import com.clinic.project1.model.dto.AppointmentDto;
+import com.clinic.project1.model.dto.DoctorDto;
+import com.clinic.project1.model.dto.PatientDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+
+    private static final Disease[] DISEASES = Disease.values();
+
+    private Appointment appointment;
+    private Patient patient;
+    private Doctor doctor;
+    private int diseaseIndex;
+
+    @Setup
+    public void setUp() {
+        doctor = Doctor.builder()
+                .id(1)
+                .firstName("John")
+                .lastName("Smith")
+                .specializations(EnumSet.of(Specialization.FAMILY_MEDICINE, Specialization.PULMONOLOGY))
+                .build();
+        patient = Patient.builder()
+                .id(1)
+                .firstName("Anna")
+                .lastName("Nowak")
+                .disease(Disease.FLU)
+                .doctor(doctor)
+                .build();
+        appointment = Appointment.builder()
+                .id(1)
+                .appointmentDate(LocalDateTime.of(2030, 1, 1, 10, 0))
+                .doctor(doctor)
+                .patient(patient)
+                .build();
+    }
+
+    @Benchmark
+    public AppointmentDto appointmentMapToDto() {
+        return AppointmentMapper.mapToDto(appointment);
+    }
+
+    @Benchmark
+    public PatientDto patientMapToDto() {
+        return PatientMapper.mapToDto(patient);
+    }
+
+    @Benchmark
+    public DoctorDto doctorMapToDto() {
+        return DoctorMapper.mapToDto(doctor);
+    }
+
+    @Benchmark
+    public Specialization requiredSpecializationForDisease() {
+        Disease disease = DISEASES[diseaseIndex];
+        diseaseIndex = (diseaseIndex + 1) % DISEASES.length;
+        return SpecializationMapper.getRequiredSpecializationForDisease(disease);
+    }
+}
@@ -0,0 +1,92 @@
+package com.clinic.project1.search;
+
+import com.clinic.project1.model.dto.NameMatchDto;
+import com.clinic.project1.model.projection.PersonNameView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name search over synthetic Polish-looking names: a short prefix, a full surname with a typo, and first name plus
+ * surname prefix. Sample time gives the per-query latency, which should stay well under a millisecond.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class NameSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Anna", "Jan", "Piotr", "Katarzyna", "Łukasz", "Małgorzata",
+            "Tomasz", "Agnieszka", "Paweł", "Zofia", "Michał", "Ewa"};
+    private static final String[] STEMS = {"Kowal", "Nowak", "Wiśniew", "Wójcik", "Kamiń", "Lewandow", "Zieliń",
+            "Szymań", "Woźniak", "Dąbrow", "Kozłow", "Jankow", "Mazur", "Krawczyk", "Piotrow", "Grabow"};
+    private static final String[] SYLLABLES = {"", "ak", "ar", "el", "ic", "on", "ur", "ew", "ik", "ol"};
+    private static final String[] SUFFIXES = {"ski", "ska", "czyk", "ek", "iak", "owicz", ""};
+
+    @Param({"1000000"})
+    private int names;
+
+    private NameIndex nameIndex;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<PersonNameView> views = new ArrayList<>(names);
+        for (int i = 1; i <= names; i++) {
+            String lastName = STEMS[random.nextInt(STEMS.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)]
+                    + SYLLABLES[random.nextInt(SYLLABLES.length)] + SUFFIXES[random.nextInt(SUFFIXES.length)];
+            views.add(name(i, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], lastName));
+        }
+        nameIndex = new NameIndex();
+        nameIndex.replaceAll(views);
+    }
+
+    @Benchmark
+    public List<NameMatchDto> shortPrefix() {
+        return nameIndex.search("ko", 20);
+    }
+
+    @Benchmark
+    public List<NameMatchDto> surnameWithTypo() {
+        return nameIndex.search("Kowlaski", 20);
+    }
+
+    @Benchmark
+    public List<NameMatchDto> firstNameAndSurnamePrefix() {
+        return nameIndex.search("zofia wisn", 20);
+    }
+
+    private static PersonNameView name(int id, String firstName, String lastName) {
+        return new PersonNameView() {
+            @Override
+            public int getId() {
+                return id;
+            }
+
+            @Override
+            public String getFirstName() {
+                return firstName;
+            }
+
+            @Override
+            public String getLastName() {
+                return lastName;
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.clinic.project1.service;
+
+import com.clinic.project1.BenchmarkContext;
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.model.command.create.CreateAppointmentCommand;
+import com.clinic.project1.model.command.create.CreateDoctorCommand;
+import com.clinic.project1.model.command.create.CreatePatientCommand;
+import com.clinic.project1.model.dto.AppointmentDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Eight booking threads spread over {@code doctors} doctors. With one doctor every booking queues on the same
+ * lock stripe; with eight each thread has its own stripe, so the gap shows what per-doctor striping buys.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ConcurrentBookingBenchmark {
+
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    @Param({"1", "8"})
+    private int doctors;
+
+    private ConfigurableApplicationContext context;
+    private AppointmentService appointmentService;
+    private int[] doctorIds;
+    private int patientId;
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("concurrentbooking" + doctors);
+        appointmentService = context.getBean(AppointmentService.class);
+        DoctorService doctorService = context.getBean(DoctorService.class);
+        doctorIds = new int[doctors];
+        for (int i = 0; i < doctors; i++) {
+            doctorIds[i] = doctorService.save(CreateDoctorCommand.builder()
+                    .firstName("Busy")
+                    .lastName("Doctor")
+                    .specializationSet(Set.of(Specialization.FAMILY_MEDICINE))
+                    .build()).getId();
+        }
+        patientId = context.getBean(PatientService.class).save(CreatePatientCommand.builder()
+                .firstName("Regular")
+                .lastName("Patient")
+                .disease(Disease.FLU)
+                .doctorId(doctorIds[0])
+                .build()).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Booker {
+
+        private int thread;
+        private long bookingCount;
+
+        @Setup(Level.Trial)
+        public void setUp(ConcurrentBookingBenchmark benchmark) {
+            thread = benchmark.threadCount.getAndIncrement();
+        }
+    }
+
+    // Every thread books its own minute offsets, so no booking is ever rejected as a double booking.
+    @Benchmark
+    public AppointmentDto saveAppointment(Booker booker) {
+        return appointmentService.save(CreateAppointmentCommand.builder()
+                .doctorId(doctorIds[booker.thread % doctors])
+                .patientId(patientId)
+                .date(FIRST_SLOT.plusMinutes(booker.bookingCount++ * 8 + booker.thread))
+                .build());
+    }
+}
@@ -0,0 +1,108 @@
+package com.clinic.project1.service;
+
+import com.clinic.project1.BenchmarkContext;
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.exception.DoctorOccupiedException;
+import com.clinic.project1.model.command.create.CreateDoctorCommand;
+import com.clinic.project1.model.command.create.CreatePatientCommand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DoctorAvailabilityBenchmark {
+
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 1, 1, 8, 0);
+    private static final int SLOT_MINUTES = 30;
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    @Param({"100", "10000", "100000"})
+    private int scheduleSize;
+
+    private ConfigurableApplicationContext context;
+    private AppointmentService appointmentService;
+    private int doctorId;
+    private int probe;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("availability" + scheduleSize);
+        appointmentService = context.getBean(AppointmentService.class);
+        doctorId = context.getBean(DoctorService.class).save(CreateDoctorCommand.builder()
+                .firstName("Busy")
+                .lastName("Doctor")
+                .specializationSet(Set.of(Specialization.FAMILY_MEDICINE))
+                .build()).getId();
+        int patientId = context.getBean(PatientService.class).save(CreatePatientCommand.builder()
+                .firstName("Regular")
+                .lastName("Patient")
+                .disease(Disease.FLU)
+                .doctorId(doctorId)
+                .build()).getId();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> rows = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < scheduleSize; i++) {
+            rows.add(new Object[]{1_000_000 + i, doctorId, patientId, Timestamp.valueOf(slot(i))});
+            if (rows.size() == SEED_BATCH_SIZE || i == scheduleSize - 1) {
+                jdbcTemplate.batchUpdate("insert into appointment (id, version, doctor_id, patient_id, appointment_date) "
+                        + "values (?, 0, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void freeSlot() {
+        appointmentService.validateDoctorAvailability(doctorId, nextProbe().plusMinutes(SLOT_MINUTES / 2));
+    }
+
+    @Benchmark
+    public DoctorOccupiedException occupiedSlot() {
+        try {
+            appointmentService.validateDoctorAvailability(doctorId, nextProbe());
+            throw new IllegalStateException("Seeded slot was reported as free");
+        } catch (DoctorOccupiedException e) {
+            return e;
+        }
+    }
+
+    private LocalDateTime nextProbe() {
+        probe = (probe + 7919) % scheduleSize;
+        return slot(probe);
+    }
+
+    private static LocalDateTime slot(int index) {
+        return FIRST_SLOT.plusMinutes((long) index * SLOT_MINUTES);
+    }
+}
@@ -0,0 +1,99 @@
+package com.clinic.project1.service;
+
+import com.clinic.project1.BenchmarkContext;
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.model.command.create.CreateAppointmentCommand;
+import com.clinic.project1.model.command.create.CreateDoctorCommand;
+import com.clinic.project1.model.command.create.CreatePatientCommand;
+import com.clinic.project1.model.dto.AppointmentDto;
+import com.clinic.project1.model.dto.DoctorDto;
+import com.clinic.project1.model.dto.PatientDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end service writes against embedded H2. Toggling {@code secondLevelCache} shows what the cached
+ * doctor lookup is worth on the patient and appointment write paths.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SaveBenchmark {
+
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private DoctorService doctorService;
+    private PatientService patientService;
+    private AppointmentService appointmentService;
+    private int doctorId;
+    private int patientId;
+    private long appointmentCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("save" + secondLevelCache,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache);
+        doctorService = context.getBean(DoctorService.class);
+        patientService = context.getBean(PatientService.class);
+        appointmentService = context.getBean(AppointmentService.class);
+        doctorId = saveDoctor().getId();
+        patientId = savePatient().getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DoctorDto saveDoctor() {
+        return doctorService.save(CreateDoctorCommand.builder()
+                .firstName("John")
+                .lastName("Smith")
+                .specializationSet(Set.of(Specialization.FAMILY_MEDICINE, Specialization.PULMONOLOGY))
+                .build());
+    }
+
+    @Benchmark
+    public PatientDto savePatient() {
+        return patientService.save(CreatePatientCommand.builder()
+                .firstName("Anna")
+                .lastName("Nowak")
+                .disease(Disease.FLU)
+                .doctorId(doctorId)
+                .build());
+    }
+
+    @Benchmark
+    public AppointmentDto saveAppointment() {
+        return appointmentService.save(CreateAppointmentCommand.builder()
+                .doctorId(doctorId)
+                .patientId(patientId)
+                .date(FIRST_SLOT.plusMinutes(appointmentCount++))
+                .build());
+    }
+}
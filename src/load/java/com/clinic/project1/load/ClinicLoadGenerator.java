@@ -0,0 +1,61 @@
+package com.clinic.project1.load;
+
+import com.clinic.project1.Project1Application;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Entry point of the load profile. Against an external --target, start that instance with
+ * server.error.include-exception=true so failures are reported by exception class rather than by status code, and
+ * with clinic.admission.enabled=true and this host in clinic.admission.trusted-proxies so admission control is
+ * exercised with a rate limit per simulated client.
+ */
+public class ClinicLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        URI target = options.target();
+        if (target == null) {
+            context = startInProcess();
+            target = URI.create("http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port"));
+        }
+        try {
+            ClinicTraffic traffic = new ClinicTraffic(target, options);
+            traffic.seed();
+            LoadReport report = new LoadReport();
+            Duration elapsed = traffic.run(report);
+            String header = LoadReport.header(options.target() == null ? "in-process " + target : target.toString(),
+                    options.rate(), options.duration(), options.mix());
+            report.write(options.report(), header, elapsed);
+            System.out.println(report.format(header, elapsed));
+            System.out.println("Report written to " + options.report().toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startInProcess() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // Command-line arguments, as builder properties are defaults that application.properties overrides.
+        return new SpringApplicationBuilder(Project1Application.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--server.error.include-exception=true",
+                        "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--clinic.outbox.sink=queue",
+                        "--clinic.admission.enabled=true",
+                        "--clinic.admission.trusted-proxies=127.0.0.1,0:0:0:0:0:0:0:1",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.apache.catalina.core=OFF",
+                        "--logging.level.org.hibernate.orm.jdbc.batch=OFF",
+                        "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF");
+    }
+}
@@ -0,0 +1,278 @@
+package com.clinic.project1.load;
+
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.mapper.SpecializationMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Seeds doctors and patients through the REST API, then sends a weighted mix of operations at a fixed arrival rate
+ * (open model): requests are issued on schedule whether or not earlier ones have completed.
+ */
+public class ClinicTraffic {
+
+    private static final LocalTime OPENING_TIME = LocalTime.of(8, 0);
+    private static final int SLOTS_PER_DAY = 16;
+    private static final int SLOT_MINUTES = 30;
+    private static final List<String> POLLED_LISTS = List.of("/api/v1/doctors", "/api/v1/patients", "/api/v1/appointments");
+    private static final String CLIENT_HEADER = "X-Client-Id";
+    private static final int SEED_BATCH_SIZE = 4;
+
+    private final URI target;
+    private final LoadOptions options;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Operation[] weightedOperations;
+    private final List<Integer> doctorIds = new ArrayList<>();
+    private final Map<Integer, Set<Specialization>> doctorSpecializations = new ConcurrentHashMap<>();
+    private final List<int[]> patients = new ArrayList<>();
+    private final List<Integer> appointmentIds = new ArrayList<>();
+    private final Map<String, String> listETags = new ConcurrentHashMap<>();
+
+    public ClinicTraffic(URI target, LoadOptions options) {
+        this.target = target;
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout())
+                .build();
+        List<Operation> operations = new ArrayList<>();
+        options.mix().forEach((operation, weight) -> operations.addAll(Collections.nCopies(weight, operation)));
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no positive weights");
+        }
+        this.weightedOperations = operations.toArray(Operation[]::new);
+    }
+
+    public void seed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Specialization[] specializations = Specialization.values();
+        for (int i = 0; i < options.doctors(); i++) {
+            Set<Specialization> doctorSpecializationSet = EnumSet.of(specializations[i % specializations.length]);
+            if (random.nextBoolean()) {
+                doctorSpecializationSet.add(specializations[random.nextInt(specializations.length)]);
+            }
+            int doctorId = idOf(sendAdmitted(post("/api/v1/doctors", Map.of(
+                    "firstName", "Load",
+                    "lastName", "Doctor" + letters(i),
+                    "specializationSet", doctorSpecializationSet))).join(), 201);
+            doctorIds.add(doctorId);
+            doctorSpecializations.put(doctorId, doctorSpecializationSet);
+        }
+
+        // Batches stay within the server's write concurrency limit instead of leaning on admission retries.
+        for (int batch = 0; batch < options.patients(); batch += SEED_BATCH_SIZE) {
+            List<CompletableFuture<int[]>> created = new ArrayList<>();
+            for (int i = batch; i < Math.min(batch + SEED_BATCH_SIZE, options.patients()); i++) {
+                int doctorId = doctorIds.get(i % doctorIds.size());
+                created.add(sendAdmitted(post("/api/v1/patients", Map.of(
+                        "firstName", "Load",
+                        "lastName", "Patient" + letters(i),
+                        "disease", randomDiseaseFor(doctorId),
+                        "doctorId", doctorId)))
+                        .thenApply(response -> new int[]{idOf(response, 200), doctorId}));
+            }
+            created.forEach(patient -> patients.add(patient.join()));
+        }
+    }
+
+    public Duration run(LoadReport report) throws InterruptedException {
+        long period = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime() + period;
+        long end = start + options.duration().toNanos();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        for (long i = 0; ; i++) {
+            long intended = start + i * period;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+            if (!inFlight.tryAcquire()) {
+                report.recordDropped(operation);
+                continue;
+            }
+            CompletableFuture<HttpResponse<String>> response;
+            try {
+                response = send(operation);
+            } catch (RuntimeException e) {
+                inFlight.release();
+                report.recordFailure(operation, intended, System.nanoTime(), e);
+                continue;
+            }
+            response.whenComplete((completed, failure) -> {
+                long now = System.nanoTime();
+                if (failure != null) {
+                    report.recordFailure(operation, intended, now, failure);
+                } else {
+                    onResponse(operation, completed);
+                    report.recordResponse(operation, intended, now, completed);
+                }
+                inFlight.release();
+            });
+        }
+        // Requests time out on their own, so waiting twice the timeout lets every outstanding one be recorded.
+        inFlight.tryAcquire(options.maxInFlight(), 2 * options.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        return Duration.ofNanos(end - start);
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(Operation operation) {
+        return switch (operation) {
+            case BOOK -> send(post("/api/v1/appointments", Map.of(
+                    "doctorId", randomOf(doctorIds),
+                    "patientId", randomOf(patients)[0],
+                    "date", randomSlot().toString())));
+            case RESCHEDULE -> {
+                Integer appointmentId = randomAppointment();
+                yield appointmentId == null
+                        ? send(Operation.BOOK)
+                        : send(json(HttpRequest.newBuilder(uri("/api/v1/appointments/" + appointmentId + "/date")),
+                                Map.of("appointmentDate", randomSlot().toString()), "PUT"));
+            }
+            case DISEASE -> {
+                int[] patient = randomOf(patients);
+                yield send(json(HttpRequest.newBuilder(uri("/api/v1/patients/" + patient[0] + "/disease")),
+                        Map.of("disease", randomDiseaseFor(patient[1])), "PATCH"));
+            }
+            case POLL -> {
+                String path = POLLED_LISTS.get(ThreadLocalRandom.current().nextInt(POLLED_LISTS.size()));
+                HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).timeout(options.timeout())
+                        .header(CLIENT_HEADER, randomClient())
+                        .GET();
+                String etag = listETags.get(path);
+                if (etag != null) {
+                    request.header("If-None-Match", etag);
+                }
+                yield send(request.build()).thenApply(response -> {
+                    response.headers().firstValue("ETag").ifPresent(value -> listETags.put(path, value));
+                    return response;
+                });
+            }
+        };
+    }
+
+    private void onResponse(Operation operation, HttpResponse<String> response) {
+        if (operation == Operation.BOOK && response.statusCode() == 201) {
+            int id = idOf(response, 201);
+            synchronized (appointmentIds) {
+                appointmentIds.add(id);
+            }
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // Seeding has to complete, so requests turned away by admission control are retried after their Retry-After.
+    private CompletableFuture<HttpResponse<String>> sendAdmitted(HttpRequest request) {
+        return send(request).thenCompose(response -> {
+            if (response.statusCode() != 429 && response.statusCode() != 503) {
+                return CompletableFuture.completedFuture(response);
+            }
+            long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            return CompletableFuture.supplyAsync(() -> request,
+                            CompletableFuture.delayedExecutor(retryAfter, TimeUnit.SECONDS))
+                    .thenCompose(this::sendAdmitted);
+        });
+    }
+
+    private HttpRequest post(String path, Map<String, Object> body) {
+        return json(HttpRequest.newBuilder(uri(path)), body, "POST");
+    }
+
+    private HttpRequest json(HttpRequest.Builder request, Map<String, Object> body, String method) {
+        try {
+            return request.timeout(options.timeout())
+                    .header("Content-Type", "application/json")
+                    .header(CLIENT_HEADER, randomClient())
+                    .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int idOf(HttpResponse<String> response, int expectedStatus) {
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(response.request().method() + " " + response.uri() + " returned "
+                    + response.statusCode() + ": " + response.body());
+        }
+        try {
+            return objectMapper.readTree(response.body()).get("id").asInt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String randomClient() {
+        return "load-" + ThreadLocalRandom.current().nextInt(options.clients());
+    }
+
+    private URI uri(String path) {
+        return URI.create(target + path);
+    }
+
+    private LocalDateTime randomSlot() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return LocalDate.now().plusDays(1 + random.nextInt(options.slotDays()))
+                .atTime(OPENING_TIME)
+                .plusMinutes((long) SLOT_MINUTES * random.nextInt(SLOTS_PER_DAY));
+    }
+
+    private Disease randomDiseaseFor(int doctorId) {
+        Set<Specialization> specializations = doctorSpecializations.get(doctorId);
+        List<Disease> treatable = Arrays.stream(Disease.values())
+                .filter(disease -> specializations.contains(SpecializationMapper.getRequiredSpecializationForDisease(disease)))
+                .toList();
+        return treatable.get(ThreadLocalRandom.current().nextInt(treatable.size()));
+    }
+
+    private Integer randomAppointment() {
+        synchronized (appointmentIds) {
+            return appointmentIds.isEmpty() ? null : randomOf(appointmentIds);
+        }
+    }
+
+    private static <T> T randomOf(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    // Names have to match [A-Z][a-z]+, so sequence numbers are spelled in base-26 letters.
+    private static String letters(int number) {
+        StringBuilder letters = new StringBuilder();
+        do {
+            letters.append((char) ('a' + number % 26));
+            number /= 26;
+        } while (number > 0);
+        return letters.toString();
+    }
+}
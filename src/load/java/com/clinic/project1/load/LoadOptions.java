@@ -0,0 +1,104 @@
+package com.clinic.project1.load;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options in --name=value form. An empty --target starts the application in-process on a random port
+ * against its own in-memory database.
+ */
+public class LoadOptions {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    private LoadOptions() {
+    }
+
+    public static LoadOptions parse(String... args) {
+        LoadOptions options = new LoadOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    public URI target() {
+        String target = values.getOrDefault("target", "");
+        return target.isBlank() ? null : URI.create(target.endsWith("/") ? target.substring(0, target.length() - 1) : target);
+    }
+
+    public int rate() {
+        return intValue("rate", 200);
+    }
+
+    public Duration duration() {
+        return Duration.parse(values.getOrDefault("duration", "PT60S"));
+    }
+
+    public int doctors() {
+        return intValue("doctors", 50);
+    }
+
+    public int patients() {
+        return intValue("patients", 500);
+    }
+
+    // Requests carry X-Client-Id of one of this many simulated clients, so per-client rate limits see a realistic spread.
+    public int clients() {
+        return intValue("clients", 100);
+    }
+
+    public int slotDays() {
+        return intValue("slot-days", 14);
+    }
+
+    public int maxInFlight() {
+        return intValue("max-in-flight", 10_000);
+    }
+
+    public Duration timeout() {
+        return Duration.parse(values.getOrDefault("timeout", "PT5S"));
+    }
+
+    public Path report() {
+        return Path.of(values.getOrDefault("report", "target/load-report.txt"));
+    }
+
+    public Map<Operation, Integer> mix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : values.getOrDefault("mix", "book=40,reschedule=20,disease=10,poll=30").split(",")) {
+            String[] weight = entry.trim().split("=");
+            mix.put(Operation.ofKey(weight[0]), Integer.parseInt(weight[1]));
+        }
+        return mix;
+    }
+
+    // Startup benchmark: boots per mode, the fat jar of the default build and the -Pfast-start output directory.
+    public int runs() {
+        return intValue("runs", 5);
+    }
+
+    public Path baselineJar() {
+        return Path.of(values.getOrDefault("baseline-jar", "target/Project1-0.0.1-SNAPSHOT.jar"));
+    }
+
+    public Path fastStartDirectory() {
+        return Path.of(values.getOrDefault("fast-start-dir", "target/fast-start"));
+    }
+
+    public Duration startupTimeout() {
+        return Duration.parse(values.getOrDefault("startup-timeout", "PT120S"));
+    }
+
+    private int intValue(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value);
+    }
+}
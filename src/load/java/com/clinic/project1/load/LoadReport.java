@@ -0,0 +1,137 @@
+package com.clinic.project1.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Per-operation counters, error classes and latency histograms. Latency is measured from the moment a request was
+ * scheduled to be sent, not from when it actually left, so a stalled server shows up in the percentiles instead of
+ * silently lowering the offered load.
+ */
+public class LoadReport {
+
+    private static final Pattern EXCEPTION = Pattern.compile("\"exception\"\\s*:\\s*\"(?:[\\w$]+\\.)*([\\w$]+)\"");
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final Histogram overall = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+
+    public LoadReport() {
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    public void recordResponse(Operation operation, long intendedNanos, long completedNanos, HttpResponse<String> response) {
+        record(operation, intendedNanos, completedNanos);
+        int status = response.statusCode();
+        if (status < 400) {
+            stats.get(operation).ok.increment();
+        } else {
+            recordError(operation, errorClassOf(response));
+        }
+    }
+
+    public void recordFailure(Operation operation, long intendedNanos, long completedNanos, Throwable failure) {
+        record(operation, intendedNanos, completedNanos);
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        recordError(operation, cause.getClass().getSimpleName());
+    }
+
+    public void recordDropped(Operation operation) {
+        stats.get(operation).sent.increment();
+        recordError(operation, "Dropped (in-flight limit)");
+    }
+
+    public void write(Path file, String header, Duration elapsed) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, format(header, elapsed));
+    }
+
+    public String format(String header, Duration elapsed) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        double seconds = elapsed.toNanos() / 1e9;
+        out.println(header);
+        out.println();
+        out.printf("%-12s %9s %9s %9s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "sent", "ok", "errors", "ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        stats.forEach((operation, stat) -> {
+            if (stat.sent.sum() > 0) {
+                printRow(out, operation.key(), stat.sent.sum(), stat.ok.sum(), stat.histogram.copy(), seconds);
+            }
+        });
+        long sent = stats.values().stream().mapToLong(stat -> stat.sent.sum()).sum();
+        long ok = stats.values().stream().mapToLong(stat -> stat.ok.sum()).sum();
+        Histogram all = overall.copy();
+        printRow(out, "all", sent, ok, all, seconds);
+
+        out.println();
+        out.println("Errors by class");
+        stats.forEach((operation, stat) -> new TreeMap<>(stat.errors).forEach((errorClass, count) ->
+                out.printf("%-12s %-40s %9d %7.2f%%%n", operation.key(), errorClass, count.sum(),
+                        100.0 * count.sum() / stat.sent.sum())));
+
+        out.println();
+        out.println("Latency distribution, all operations (ms)");
+        all.outputPercentileDistribution(out, 5, 1000.0);
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private void record(Operation operation, long intendedNanos, long completedNanos) {
+        long micros = Math.min(MAX_LATENCY_MICROS, Math.max(0, (completedNanos - intendedNanos) / 1000));
+        Stats stat = stats.get(operation);
+        stat.sent.increment();
+        stat.histogram.recordValue(micros);
+        overall.recordValue(micros);
+    }
+
+    private void recordError(Operation operation, String errorClass) {
+        stats.get(operation).errors.computeIfAbsent(errorClass, key -> new LongAdder()).increment();
+    }
+
+    private static String errorClassOf(HttpResponse<String> response) {
+        Matcher matcher = EXCEPTION.matcher(response.body() == null ? "" : response.body());
+        return matcher.find() ? matcher.group(1) : "HTTP " + response.statusCode();
+    }
+
+    private static void printRow(PrintStream out, String name, long sent, long ok, Histogram histogram, double seconds) {
+        out.printf("%-12s %9d %9d %9d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, sent, ok, sent - ok, ok / seconds,
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    public static String header(String target, int rate, Duration duration, Map<Operation, Integer> mix) {
+        return "Clinic load test " + LocalDateTime.now().withNano(0) + " target=" + target + " rate=" + rate
+                + "/s duration=" + duration + " mix=" + mix;
+    }
+
+    private static class Stats {
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder ok = new LongAdder();
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        private final Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    }
+}
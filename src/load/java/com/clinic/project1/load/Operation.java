@@ -0,0 +1,27 @@
+package com.clinic.project1.load;
+
+public enum Operation {
+    BOOK("book"),
+    RESCHEDULE("reschedule"),
+    DISEASE("disease"),
+    POLL("poll");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Operation ofKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + key);
+    }
+}
@@ -0,0 +1,136 @@
+package com.clinic.project1.load;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first successful request, per startup mode: from launching a fresh JVM until GET /api/v1/doctors answers
+ * 200, which includes schema setup and the first database round trip. Modes are interleaved run by run, after one
+ * untimed round that warms the page cache, so drift on the host affects every mode alike. Needs both the default
+ * package and the -Pfast-start package to have been built.
+ */
+public class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        Path fastStart = options.fastStartDirectory().toAbsolutePath();
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("baseline", List.of("-jar", options.baselineJar().toAbsolutePath().toString()));
+        modes.put("aot", List.of("-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-start",
+                "-jar", fastStart.resolve("Project1.jar").toString()));
+        modes.put("aot+cds", List.of("-XX:SharedArchiveFile=" + fastStart.resolve("application.jsa"),
+                "-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-start",
+                "-jar", fastStart.resolve("Project1.jar").toString()));
+
+        Path workDirectory = Files.createDirectories(options.report().toAbsolutePath().getParent()
+                .resolve("startup-benchmark"));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        Map<String, List<Long>> results = new LinkedHashMap<>();
+        modes.keySet().forEach(mode -> results.put(mode, new ArrayList<>()));
+        for (int run = 0; run <= options.runs(); run++) {
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                long millis = timeToFirstRequest(httpClient, mode.getValue(), workDirectory.resolve(mode.getKey() + ".log"),
+                        options.startupTimeout());
+                if (run > 0) {
+                    results.get(mode.getKey()).add(millis);
+                    System.out.printf("run %d %-8s %6d ms%n", run, mode.getKey(), millis);
+                }
+            }
+        }
+
+        String report = format(results, options.runs());
+        Files.writeString(options.report(), report);
+        System.out.println(report);
+        System.out.println("Report written to " + options.report().toAbsolutePath());
+    }
+
+    private static long timeToFirstRequest(HttpClient httpClient, List<String> mode, Path log, Duration timeout)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(mode);
+        command.add("--server.port=" + port);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/doctors"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(log.getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(log.toFile()))
+                .start();
+        try {
+            long deadline = started + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    }
+                } catch (IOException e) {
+                    // Not listening yet.
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException("No successful request within " + timeout + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static String format(Map<String, List<Long>> results, int runs) {
+        StringBuilder report = new StringBuilder()
+                .append("Time to first successful request, ").append(runs).append(" runs per mode, ")
+                .append(LocalDateTime.now().withNano(0)).append('\n')
+                .append(String.format("%-10s %8s %8s %8s %12s%n", "mode", "min", "median", "max", "vs baseline"));
+        long baseline = median(results.values().iterator().next());
+        results.forEach((mode, millis) -> {
+            long median = median(millis);
+            report.append(String.format("%-10s %6d ms %6d ms %6d ms %11.1f%%%n", mode,
+                    millis.stream().mapToLong(Long::longValue).min().orElse(0), median,
+                    millis.stream().mapToLong(Long::longValue).max().orElse(0),
+                    100.0 * (median - baseline) / baseline));
+        });
+        return report.toString();
+    }
+
+    private static long median(List<Long> millis) {
+        List<Long> sorted = millis.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.clinic.project1.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that follows latency, after the gradient algorithm of Netflix concurrency-limits: a short and a
+ * long exponential average of request latency are kept, the limit shrinks while the short one runs above the long one
+ * and grows by about its square root while they agree. Samples taken while less than half the limit is in use say
+ * nothing about capacity and only feed the averages. With min = max the limit is fixed.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 1.0 / 600;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Lock lock = new ReentrantLock();
+    private volatile int limit;
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (minLimit < maxLimit) {
+            onSample(latencyNanos, inFlightBefore);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    void onSample(long latencyNanos, int inFlightBefore) {
+        lock.lock();
+        try {
+            shortRtt = shortRtt == 0 ? latencyNanos : shortRtt + (latencyNanos - shortRtt) * SHORT_WEIGHT;
+            longRtt = longRtt == 0 ? latencyNanos : longRtt + (latencyNanos - longRtt) * LONG_WEIGHT;
+            // Once load is gone the long average lags far behind; pull it down so the limit recovers quickly.
+            if (longRtt > 2 * shortRtt) {
+                longRtt *= 0.95;
+            }
+            if (inFlightBefore < estimatedLimit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                    estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+            limit = (int) estimatedLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
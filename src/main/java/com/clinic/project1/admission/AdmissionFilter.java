@@ -0,0 +1,139 @@
+package com.clinic.project1.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of /api. Writes pass a per-client token bucket (429 when empty) and an adaptive
+ * concurrency limit capped below the connection pool (503 when full); reads have a separate fixed limit, so a booking
+ * storm can neither take their connections nor their slots. Rejections carry Retry-After.
+ * <p>
+ * Clients are keyed by remote address. The client header is honoured only on requests from a configured trusted
+ * proxy; from anyone else it would let a caller pick a fresh bucket per request.
+ * <p>
+ * Off unless clinic.admission.enabled=true. Behind a load balancer or reverse proxy, list its addresses in
+ * clinic.admission.trusted-proxies and have it set the client header, or every caller shares the proxy's bucket.
+ */
+@Component
+@ConditionalOnProperty(name = "clinic.admission.enabled", havingValue = "true")
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_REQUESTS = "clinic.admission.requests";
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ClientRateLimiter clientRateLimiter;
+    private final AdaptiveConcurrencyLimit writeLimit;
+    private final AdaptiveConcurrencyLimit readLimit;
+    private final String clientHeader;
+    private final Set<String> trustedProxies;
+    private final RequestCounters writes;
+    private final RequestCounters reads;
+
+    public AdmissionFilter(MeterRegistry meterRegistry,
+                           @Value("${clinic.admission.client-rate:5}") double clientRate,
+                           @Value("${clinic.admission.client-burst:20}") int clientBurst,
+                           @Value("${clinic.admission.client-header:X-Client-Id}") String clientHeader,
+                           @Value("${clinic.admission.trusted-proxies:}") Set<String> trustedProxies,
+                           @Value("${clinic.admission.write-limit.initial:4}") int writeInitialLimit,
+                           @Value("${clinic.admission.write-limit.min:1}") int writeMinLimit,
+                           @Value("${clinic.admission.write-limit.max:8}") int writeMaxLimit,
+                           @Value("${clinic.admission.read-limit:64}") int readLimit) {
+        this.clientRateLimiter = new ClientRateLimiter(clientRate, clientBurst);
+        this.writeLimit = new AdaptiveConcurrencyLimit(writeInitialLimit, writeMinLimit, writeMaxLimit);
+        this.readLimit = new AdaptiveConcurrencyLimit(readLimit, readLimit, readLimit);
+        this.clientHeader = clientHeader;
+        this.trustedProxies = Set.copyOf(trustedProxies);
+        this.writes = new RequestCounters(meterRegistry, "write", this.writeLimit);
+        this.reads = new RequestCounters(meterRegistry, "read", this.readLimit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        RequestCounters counters = write ? writes : reads;
+        if (write) {
+            long waitNanos = clientRateLimiter.tryTake(clientOf(request), System.nanoTime());
+            if (waitNanos > 0) {
+                counters.throttled.increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1,
+                        "Request rate limit exceeded");
+                return;
+            }
+        }
+        AdaptiveConcurrencyLimit limit = write ? writeLimit : readLimit;
+        if (!limit.tryAcquire()) {
+            counters.shed.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is at its concurrency limit");
+            return;
+        }
+        counters.admitted.increment();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.release(System.nanoTime() - start);
+        }
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String remoteAddress = request.getRemoteAddr();
+        if (!trustedProxies.contains(remoteAddress)) {
+            return remoteAddress;
+        }
+        String client = request.getHeader(clientHeader);
+        return client != null && !client.isBlank() ? client : remoteAddress;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.sendError(status.value(), message);
+    }
+
+    private static class RequestCounters {
+
+        private final Counter admitted;
+        private final Counter throttled;
+        private final Counter shed;
+
+        RequestCounters(MeterRegistry meterRegistry, String requestClass, AdaptiveConcurrencyLimit limit) {
+            this.admitted = counter(meterRegistry, requestClass, "admitted");
+            this.throttled = counter(meterRegistry, requestClass, "throttled");
+            this.shed = counter(meterRegistry, requestClass, "shed");
+            Gauge.builder("clinic.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .tag("class", requestClass)
+                    .register(meterRegistry);
+            Gauge.builder("clinic.admission.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .tag("class", requestClass)
+                    .register(meterRegistry);
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String requestClass, String outcome) {
+            return Counter.builder(METRIC_REQUESTS)
+                    .tag("class", requestClass)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
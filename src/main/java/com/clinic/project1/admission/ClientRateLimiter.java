@@ -0,0 +1,65 @@
+package com.clinic.project1.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One token bucket per client key. Buckets of clients that went quiet are dropped, which is the same as a full bucket.
+ */
+public class ClientRateLimiter {
+
+    private final double burst;
+    private final double tokensPerNano;
+    private final Cache<String, TokenBucket> buckets;
+
+    public ClientRateLimiter(double ratePerSecond, int burst) {
+        this.burst = burst;
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofNanos((long) (burst / tokensPerNano)).plusMinutes(1))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /**
+     * Takes a token for the client and returns 0, or returns the nanoseconds until the next token when the bucket is
+     * empty.
+     */
+    public long tryTake(String client, long nowNanos) {
+        return buckets.get(client, key -> new TokenBucket(burst, nowNanos)).tryTake(nowNanos);
+    }
+
+    private class TokenBucket {
+
+        private final Lock lock = new ReentrantLock();
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+
+        long tryTake(long nowNanos) {
+            lock.lock();
+            try {
+                if (nowNanos > refilledAt) {
+                    tokens = Math.min(burst, tokens + (nowNanos - refilledAt) * tokensPerNano);
+                    refilledAt = nowNanos;
+                }
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return 0;
+                }
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.clinic.project1.cache;
+
+import com.clinic.project1.common.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-table change counters backing list ETags. A counter moves only after the writing transaction commits, and the
+ * stamp carries a random per-instance epoch, so a stamp handed out by one instance never matches on another.
+ * <p>
+ * Lists are read on the replica, which may not have the change yet when the counter moves. For
+ * clinic.datasource.replica.max-lag after a change no stamp is handed out, so a page read in that window is served
+ * without an ETag instead of being cached under a stamp it may predate.
+ */
+@Component
+public class ChangeStamps {
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final Map<Class<?>, AtomicReference<Counter>> counters = new ConcurrentHashMap<>();
+    private final long maxReplicaLagNanos;
+
+    public ChangeStamps(@Value("${clinic.datasource.replica.max-lag:PT0S}") Duration maxReplicaLag) {
+        this.maxReplicaLagNanos = maxReplicaLag.toNanos();
+    }
+
+    public void bump(Class<?> entityType) {
+        AfterCommit.run(() -> counterOf(entityType)
+                .updateAndGet(counter -> new Counter(counter.value() + 1, System.nanoTime())));
+    }
+
+    public Optional<String> stampOf(Class<?> entityType) {
+        Counter counter = counterOf(entityType).get();
+        if (counter.value() > 0 && System.nanoTime() - counter.changedAtNanos() < maxReplicaLagNanos) {
+            return Optional.empty();
+        }
+        return Optional.of(epoch + "-" + counter.value());
+    }
+
+    private AtomicReference<Counter> counterOf(Class<?> entityType) {
+        return counters.computeIfAbsent(entityType, type -> new AtomicReference<>(new Counter(0, 0)));
+    }
+
+    private record Counter(long value, long changedAtNanos) {
+    }
+}
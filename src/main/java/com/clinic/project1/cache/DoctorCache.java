@@ -0,0 +1,25 @@
+package com.clinic.project1.cache;
+
+import com.clinic.project1.common.AfterCommit;
+import com.clinic.project1.model.Doctor;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class DoctorCache {
+
+    public static final String SPECIALIZATIONS_REGION = Doctor.class.getName() + ".specializations";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evict(int doctorId) {
+        AfterCommit.run(() -> {
+            org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            cache.evictEntityData(Doctor.class, doctorId);
+            cache.evictCollectionData(SPECIALIZATIONS_REGION, doctorId);
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package com.clinic.project1.cache;
+
+import com.clinic.project1.common.AfterCommit;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.function.Supplier;
+
+/**
+ * Serialized JSON of single-entity reads, keyed by type and id and tagged with the entity version. Entries are
+ * weighed by their byte length against a fixed budget and evicted by Caffeine's W-TinyLFU policy. A version mismatch
+ * is treated as a miss, so an entry is never served for a newer row even before the writer's eviction has run.
+ */
+@Component
+public class JsonResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, Entry> cache;
+
+    public JsonResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${clinic.json-cache.max-size:16MB}") DataSize maxSize) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, Entry entry) -> entry.json().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "json-response");
+    }
+
+    public byte[] get(Class<?> type, int id, long version, Supplier<?> loader) {
+        Key key = new Key(type, id);
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.version() == version) {
+            return entry.json();
+        }
+        byte[] json = serialize(loader.get());
+        cache.asMap().merge(key, new Entry(version, json),
+                (current, loaded) -> current.version() > loaded.version() ? current : loaded);
+        return json;
+    }
+
+    public void evict(Class<?> type, int id) {
+        AfterCommit.run(() -> cache.invalidate(new Key(type, id)));
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private record Key(Class<?> type, int id) {
+    }
+
+    private record Entry(long version, byte[] json) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.clinic.project1.common;
+
+public enum AppointmentEventType {
+    CREATED,
+    MOVED,
+    DELETED
+}
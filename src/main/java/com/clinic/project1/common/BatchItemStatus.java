@@ -0,0 +1,6 @@
+package com.clinic.project1.common;
+
+public enum BatchItemStatus {
+    CREATED,
+    REJECTED
+}
@@ -0,0 +1,12 @@
+package com.clinic.project1.common;
+
+public class ETags {
+
+    public static String ofEntity(int id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    public static String ofList(String changeStamp) {
+        return "\"" + changeStamp + "\"";
+    }
+}
@@ -0,0 +1,21 @@
+package com.clinic.project1.common;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+public class KeysetPagination {
+
+    public static final String DEFAULT_LIMIT = "50";
+    public static final int MAX_LIMIT = 500;
+    public static final String NEXT_AFTER_HEADER = "X-Next-After";
+
+    public static Pageable firstPageOf(int limit) {
+        return firstPageOf(limit, "id");
+    }
+
+    public static Pageable firstPageOf(int limit, String key) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return PageRequest.of(0, pageSize, Sort.by(key));
+    }
+}
@@ -1,40 +1,124 @@
 package com.clinic.project1.controller;
 
 
+import com.clinic.project1.cache.JsonResponseCache;
+import com.clinic.project1.common.ETags;
+import com.clinic.project1.common.KeysetPagination;
+import com.clinic.project1.exception.BatchTooLargeException;
 import com.clinic.project1.model.command.create.CreateAppointmentCommand;
 import com.clinic.project1.model.command.update.FullUpdateAppointmentCommand;
 import com.clinic.project1.model.dto.AppointmentDto;
+import com.clinic.project1.model.dto.BatchAppointmentResultDto;
+import com.clinic.project1.service.AppointmentArchiveService;
 import com.clinic.project1.service.AppointmentService;
+import com.clinic.project1.service.ExportService;
+import com.clinic.project1.service.IdempotencyService;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.text.MessageFormat;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/appointments")
-@RequiredArgsConstructor
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final ExportService exportService;
+    private final JsonResponseCache jsonResponseCache;
+    private final AppointmentArchiveService appointmentArchiveService;
+    private final IdempotencyService idempotencyService;
+    private final int maxBatchSize;
 
+    public AppointmentController(AppointmentService appointmentService,
+                                 ExportService exportService,
+                                 JsonResponseCache jsonResponseCache,
+                                 AppointmentArchiveService appointmentArchiveService,
+                                 IdempotencyService idempotencyService,
+                                 @Value("${clinic.booking.max-batch-size:100}") int maxBatchSize) {
+        this.appointmentService = appointmentService;
+        this.exportService = exportService;
+        this.jsonResponseCache = jsonResponseCache;
+        this.appointmentArchiveService = appointmentArchiveService;
+        this.idempotencyService = idempotencyService;
+        this.maxBatchSize = maxBatchSize;
+    }
 
     @GetMapping
-    public List<AppointmentDto> findAll() {
-        return appointmentService.findAll();
+    public ResponseEntity<List<AppointmentDto>> findAll(@RequestParam(defaultValue = "0") int after,
+            @RequestParam(defaultValue = KeysetPagination.DEFAULT_LIMIT) int limit, WebRequest webRequest) {
+        Optional<String> changeStamp = appointmentService.changeStamp();
+        if (changeStamp.isPresent() && webRequest.checkNotModified(ETags.ofList(changeStamp.get()))) {
+            return null;
+        }
+        Slice<AppointmentDto> page = appointmentService.findAll(after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(KeysetPagination.NEXT_AFTER_HEADER,
+                    String.valueOf(page.getContent().get(page.getNumberOfElements() - 1).getId()));
+        }
+        return response.body(page.getContent());
+    }
+
+    @GetMapping("/archive")
+    public ResponseEntity<List<AppointmentDto>> findArchived(@RequestParam(required = false) Integer doctorId,
+            @RequestParam(required = false) Integer patientId,
+            @RequestParam(defaultValue = "0") int after,
+            @RequestParam(defaultValue = KeysetPagination.DEFAULT_LIMIT) int limit, WebRequest webRequest) {
+        Optional<String> changeStamp = appointmentArchiveService.changeStamp();
+        if (changeStamp.isPresent() && webRequest.checkNotModified(ETags.ofList(changeStamp.get()))) {
+            return null;
+        }
+        Slice<AppointmentDto> page = appointmentArchiveService.findHistory(doctorId, patientId, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(KeysetPagination.NEXT_AFTER_HEADER,
+                    String.valueOf(page.getContent().get(page.getNumberOfElements() - 1).getId()));
+        }
+        return response.body(page.getContent());
+    }
+
+    @GetMapping(value = "/export", produces = ExportService.NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportAppointments() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportService.NDJSON_MEDIA_TYPE))
+                .body(exportService::exportAppointments);
     }
 
     @PostMapping()
-    public ResponseEntity<AppointmentDto> save(@RequestBody @Valid CreateAppointmentCommand command) {
-        AppointmentDto createdAppointment = appointmentService.save(command);
-        return new ResponseEntity<>(createdAppointment, HttpStatus.CREATED);
+    public ResponseEntity<byte[]> save(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody @Valid CreateAppointmentCommand command) {
+        byte[] createdAppointment = idempotencyService.execute("appointments", idempotencyKey, command,
+                () -> appointmentService.save(command));
+        return ResponseEntity.status(HttpStatus.CREATED).contentType(MediaType.APPLICATION_JSON).body(createdAppointment);
+    }
+
+    @PostMapping("/batch")
+    public List<BatchAppointmentResultDto> saveBatch(@RequestBody List<CreateAppointmentCommand> commands) {
+        // A batch holds the lock stripes of all its doctors and one transaction until its last booking is written.
+        if (commands.size() > maxBatchSize) {
+            throw new BatchTooLargeException(MessageFormat
+                    .format("Batch of {0} appointments exceeds the maximum of {1}", commands.size(), maxBatchSize));
+        }
+        return appointmentService.saveAll(commands);
     }
 
     @GetMapping("/{id}")
-    public AppointmentDto findById(@PathVariable int id) {
-        return appointmentService.findById(id);
+    public ResponseEntity<byte[]> findById(@PathVariable int id, WebRequest webRequest) {
+        long version = appointmentService.findVersion(id);
+        if (webRequest.checkNotModified(ETags.ofEntity(id, version))) {
+            return null;
+        }
+        byte[] json = jsonResponseCache.get(AppointmentDto.class, id, version, () -> appointmentService.findById(id));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
     }
 
     @PutMapping("/{id}/date")
@@ -0,0 +1,24 @@
+package com.clinic.project1.controller;
+
+
+import com.clinic.project1.model.dto.CacheRegionStatisticsDto;
+import com.clinic.project1.service.CacheStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+@RequiredArgsConstructor
+public class CacheStatisticsController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    @GetMapping("/statistics")
+    public List<CacheRegionStatisticsDto> findAll() {
+        return cacheStatisticsService.findAll();
+    }
+}
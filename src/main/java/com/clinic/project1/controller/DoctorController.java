@@ -1,19 +1,41 @@
 package com.clinic.project1.controller;
 
 
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.cache.JsonResponseCache;
+import com.clinic.project1.common.ETags;
+import com.clinic.project1.common.KeysetPagination;
 import com.clinic.project1.model.command.create.CreateDoctorCommand;
 import com.clinic.project1.model.command.update.FullUpdateDoctorCommand;
 import com.clinic.project1.model.command.update.UpdateDoctorSpecializationCommand;
+import com.clinic.project1.model.dto.AppointmentDto;
 import com.clinic.project1.model.dto.DoctorDto;
+import com.clinic.project1.model.dto.DoctorMatchDto;
+import com.clinic.project1.model.dto.FreeSlotDto;
+import com.clinic.project1.model.dto.ImportReportDto;
+import com.clinic.project1.model.dto.NameMatchDto;
+import com.clinic.project1.search.NameIndex;
+import com.clinic.project1.service.AppointmentService;
 import com.clinic.project1.service.DoctorService;
+import com.clinic.project1.service.ExportService;
+import com.clinic.project1.service.ImportService;
+import com.clinic.project1.service.ScheduleService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/doctors")
@@ -21,12 +43,58 @@ import java.util.List;
 public class DoctorController {
 
     private final DoctorService doctorService;
+    private final AppointmentService appointmentService;
+    private final ExportService exportService;
+    private final ImportService importService;
+    private final JsonResponseCache jsonResponseCache;
+    private final ScheduleService scheduleService;
 
     @GetMapping
-    public List<DoctorDto> findAll() {
-        return doctorService.findAll();
+    public ResponseEntity<List<DoctorDto>> findAll(@RequestParam(defaultValue = "0") int after,
+            @RequestParam(defaultValue = KeysetPagination.DEFAULT_LIMIT) int limit, WebRequest webRequest) {
+        Optional<String> changeStamp = doctorService.changeStamp();
+        if (changeStamp.isPresent() && webRequest.checkNotModified(ETags.ofList(changeStamp.get()))) {
+            return null;
+        }
+        Slice<DoctorDto> page = doctorService.findAll(after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(KeysetPagination.NEXT_AFTER_HEADER,
+                    String.valueOf(page.getContent().get(page.getNumberOfElements() - 1).getId()));
+        }
+        return response.body(page.getContent());
     }
 
+    @GetMapping(value = "/export", produces = ExportService.NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportDoctors() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportService.NDJSON_MEDIA_TYPE))
+                .body(exportService::exportDoctors);
+    }
+
+    // The body is read as a stream, so a large file is never held in memory as a whole.
+    @PostMapping(value = "/import", consumes = ImportService.CSV_MEDIA_TYPE)
+    public ImportReportDto importDoctors(InputStream csv) {
+        return importService.importDoctors(csv);
+    }
+
+    @GetMapping("/match")
+    public List<DoctorMatchDto> findMatching(@RequestParam Disease disease,
+            @RequestParam(defaultValue = "10") int limit) {
+        return doctorService.findMatching(disease, limit);
+    }
+
+    @GetMapping("/search")
+    public List<NameMatchDto> search(@RequestParam String q,
+            @RequestParam(defaultValue = NameIndex.DEFAULT_LIMIT) int limit) {
+        return doctorService.search(q, limit);
+    }
+
+    @GetMapping("/free-slots/earliest")
+    public ResponseEntity<FreeSlotDto> findEarliestFreeSlot(@RequestParam Disease disease,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from) {
+        return ResponseEntity.of(scheduleService.findEarliestFreeSlot(disease, from));
+    }
 
     @PostMapping
     public ResponseEntity<DoctorDto> save(@RequestBody @Valid CreateDoctorCommand command) {
@@ -36,10 +104,40 @@ public class DoctorController {
 
 
     @GetMapping("/{id}")
-    public DoctorDto findById(@PathVariable int id) {
-        return doctorService.findById(id);
+    public ResponseEntity<byte[]> findById(@PathVariable int id, WebRequest webRequest) {
+        long version = doctorService.findVersion(id);
+        if (webRequest.checkNotModified(ETags.ofEntity(id, version))) {
+            return null;
+        }
+        byte[] json = jsonResponseCache.get(DoctorDto.class, id, version, () -> doctorService.findById(id));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+
+
+    @GetMapping("/{id}/free-slots")
+    public List<FreeSlotDto> findFreeSlots(@PathVariable int id, @RequestParam(defaultValue = "5") int count,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from) {
+        return scheduleService.findFreeSlots(id, from, count);
     }
 
+    @GetMapping("/{id}/appointments")
+    public ResponseEntity<List<AppointmentDto>> findAppointments(@PathVariable int id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime after,
+            @RequestParam(defaultValue = KeysetPagination.DEFAULT_LIMIT) int limit, WebRequest webRequest) {
+        Optional<String> changeStamp = appointmentService.changeStamp();
+        if (changeStamp.isPresent() && webRequest.checkNotModified(ETags.ofList(changeStamp.get()))) {
+            return null;
+        }
+        Slice<AppointmentDto> page = appointmentService.findByDoctor(id, from, to, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(KeysetPagination.NEXT_AFTER_HEADER,
+                    page.getContent().get(page.getNumberOfElements() - 1).getAppointmentDate().toString());
+        }
+        return response.body(page.getContent());
+    }
 
     @PutMapping("/{id}")
     public DoctorDto updateDoctor(@PathVariable int id, @RequestBody @Valid FullUpdateDoctorCommand command) {
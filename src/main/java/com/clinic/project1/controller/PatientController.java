@@ -1,16 +1,32 @@
 package com.clinic.project1.controller;
 
 
+import com.clinic.project1.cache.JsonResponseCache;
+import com.clinic.project1.common.ETags;
+import com.clinic.project1.common.KeysetPagination;
 import com.clinic.project1.model.command.create.CreatePatientCommand;
 import com.clinic.project1.model.command.update.FullPatientUpdateCommand;
 import com.clinic.project1.model.command.update.UpdatePatientDiseaseCommand;
+import com.clinic.project1.model.dto.ImportReportDto;
+import com.clinic.project1.model.dto.NameMatchDto;
 import com.clinic.project1.model.dto.PatientDto;
+import com.clinic.project1.search.NameIndex;
 import com.clinic.project1.service.PatientService;
+import com.clinic.project1.service.ExportService;
+import com.clinic.project1.service.ImportService;
+import com.clinic.project1.service.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/patients")
@@ -18,20 +34,62 @@ import java.util.List;
 public class PatientController {
 
     private final PatientService patientService;
+    private final ExportService exportService;
+    private final ImportService importService;
+    private final JsonResponseCache jsonResponseCache;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping
-    public List<PatientDto> findAll() {
-        return patientService.findAll();
+    public ResponseEntity<List<PatientDto>> findAll(@RequestParam(defaultValue = "0") int after,
+            @RequestParam(defaultValue = KeysetPagination.DEFAULT_LIMIT) int limit, WebRequest webRequest) {
+        Optional<String> changeStamp = patientService.changeStamp();
+        if (changeStamp.isPresent() && webRequest.checkNotModified(ETags.ofList(changeStamp.get()))) {
+            return null;
+        }
+        Slice<PatientDto> page = patientService.findAll(after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(KeysetPagination.NEXT_AFTER_HEADER,
+                    String.valueOf(page.getContent().get(page.getNumberOfElements() - 1).getId()));
+        }
+        return response.body(page.getContent());
+    }
+
+    @GetMapping(value = "/export", produces = ExportService.NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportPatients() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportService.NDJSON_MEDIA_TYPE))
+                .body(exportService::exportPatients);
+    }
+
+    // The body is read as a stream, so a large file is never held in memory as a whole.
+    @PostMapping(value = "/import", consumes = ImportService.CSV_MEDIA_TYPE)
+    public ImportReportDto importPatients(InputStream csv) {
+        return importService.importPatients(csv);
+    }
+
+    @GetMapping("/search")
+    public List<NameMatchDto> search(@RequestParam String q,
+            @RequestParam(defaultValue = NameIndex.DEFAULT_LIMIT) int limit) {
+        return patientService.search(q, limit);
     }
 
     @PostMapping
-    public PatientDto save(@RequestBody @Valid CreatePatientCommand command) {
-        return patientService.save(command);
+    public ResponseEntity<byte[]> save(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody @Valid CreatePatientCommand command) {
+        byte[] createdPatient = idempotencyService.execute("patients", idempotencyKey, command,
+                () -> patientService.save(command));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(createdPatient);
     }
 
     @GetMapping("/{id}")
-    public PatientDto findById(@PathVariable int id) {
-        return patientService.findById(id);
+    public ResponseEntity<byte[]> findById(@PathVariable int id, WebRequest webRequest) {
+        long version = patientService.findVersion(id);
+        if (webRequest.checkNotModified(ETags.ofEntity(id, version))) {
+            return null;
+        }
+        byte[] json = jsonResponseCache.get(PatientDto.class, id, version, () -> patientService.findById(id));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
     }
 
     @PostMapping("/{id}")
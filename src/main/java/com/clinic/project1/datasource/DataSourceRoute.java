@@ -0,0 +1,6 @@
+package com.clinic.project1.datasource;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
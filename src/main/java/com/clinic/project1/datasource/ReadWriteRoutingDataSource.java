@@ -0,0 +1,45 @@
+package com.clinic.project1.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Sends connections of read-only transactions to the replica pool and everything else to the primary. The decision is
+ * made when the connection is first used, so it has to sit behind a LazyConnectionDataSourceProxy: the transaction
+ * manager opens its connection before the read-only flag of the transaction is published.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Runs a read that must not see replica lag on the primary, even inside a read-only transaction. It only takes
+     * effect if the surrounding transaction has not used its connection yet.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean pinned = PINNED_TO_PRIMARY.get();
+        PINNED_TO_PRIMARY.set(true);
+        try {
+            return action.get();
+        } finally {
+            PINNED_TO_PRIMARY.set(pinned);
+        }
+    }
+
+    public static void onPrimary(Runnable action) {
+        onPrimary(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (PINNED_TO_PRIMARY.get() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return DataSourceRoute.PRIMARY;
+        }
+        return DataSourceRoute.REPLICA;
+    }
+}
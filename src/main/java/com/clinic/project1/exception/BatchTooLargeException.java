@@ -0,0 +1,12 @@
+package com.clinic.project1.exception;
+
+public class BatchTooLargeException extends RuntimeException {
+
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+
+    public BatchTooLargeException() {
+
+    }
+}
@@ -0,0 +1,12 @@
+package com.clinic.project1.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+
+    public IdempotencyKeyReusedException() {
+
+    }
+}
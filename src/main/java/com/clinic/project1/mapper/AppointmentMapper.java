@@ -1,10 +1,15 @@
 package com.clinic.project1.mapper;
 
+import com.clinic.project1.common.AppointmentEventType;
 import com.clinic.project1.model.Appointment;
+import com.clinic.project1.model.AppointmentOutboxEvent;
 import com.clinic.project1.model.Doctor;
 import com.clinic.project1.model.Patient;
 import com.clinic.project1.model.command.create.CreateAppointmentCommand;
 import com.clinic.project1.model.dto.AppointmentDto;
+import com.clinic.project1.model.dto.AppointmentEventDto;
+
+import java.time.LocalDateTime;
 
 public class AppointmentMapper {
     public static AppointmentDto mapToDto(Appointment appointment) {
@@ -15,5 +20,27 @@ public class AppointmentMapper {
                 .patientId(appointment.getPatient().getId())
                 .build();
     }
-}
 
+    public static AppointmentOutboxEvent mapToOutboxEvent(Appointment appointment, AppointmentEventType type) {
+        return AppointmentOutboxEvent.builder()
+                .type(type)
+                .appointmentId(appointment.getId())
+                .appointmentDate(appointment.getAppointmentDate())
+                .doctorId(appointment.getDoctor().getId())
+                .patientId(appointment.getPatient().getId())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    public static AppointmentEventDto mapToEventDto(AppointmentOutboxEvent event) {
+        return AppointmentEventDto.builder()
+                .eventId(event.getId())
+                .type(event.getType())
+                .appointmentId(event.getAppointmentId())
+                .appointmentDate(event.getAppointmentDate())
+                .doctorId(event.getDoctorId())
+                .patientId(event.getPatientId())
+                .occurredAt(event.getOccurredAt())
+                .build();
+    }
+}
@@ -1,8 +1,14 @@
 package com.clinic.project1.mapper;
 
+import com.clinic.project1.common.Specialization;
 import com.clinic.project1.model.Doctor;
 import com.clinic.project1.model.command.create.CreateDoctorCommand;
 import com.clinic.project1.model.dto.DoctorDto;
+import com.clinic.project1.model.dto.DoctorMatchDto;
+import com.clinic.project1.model.projection.DoctorLoadView;
+import com.clinic.project1.model.projection.DoctorView;
+
+import java.util.Set;
 
 public class DoctorMapper {
 
@@ -11,7 +17,26 @@ public class DoctorMapper {
                 .id(doctor.getId())
                 .firstName(doctor.getFirstName())
                 .lastName(doctor.getLastName())
-                .specializations(doctor.getSpecializations())
+                .specializations(doctor.getSpecializations() != null ? Set.copyOf(doctor.getSpecializations()) : null)
+                .build();
+    }
+
+    public static DoctorMatchDto mapToMatchDto(DoctorLoadView doctor) {
+        return DoctorMatchDto.builder()
+                .id(doctor.getId())
+                .firstName(doctor.getFirstName())
+                .lastName(doctor.getLastName())
+                .patientCount(doctor.getPatientCount())
+                .upcomingAppointmentCount(doctor.getUpcomingAppointmentCount())
+                .build();
+    }
+
+    public static DoctorDto mapToDto(DoctorView doctor, Set<Specialization> specializations) {
+        return DoctorDto.builder()
+                .id(doctor.getId())
+                .firstName(doctor.getFirstName())
+                .lastName(doctor.getLastName())
+                .specializations(specializations)
                 .build();
     }
 
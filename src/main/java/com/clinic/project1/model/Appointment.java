@@ -1,6 +1,6 @@
 package com.clinic.project1.model;
 
-
+import com.clinic.project1.cache.ChangeStampListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,13 +13,24 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Data
 @Entity
+@EntityListeners(ChangeStampListener.class)
 @Builder
+@Table(uniqueConstraints = @UniqueConstraint(name = Appointment.DOCTOR_DATE_CONSTRAINT,
+        columnNames = {"doctor_id", "appointmentDate"}),
+        // The unique key leads with doctor_id, so the archiver's appointment_date range needs its own index.
+        indexes = @Index(name = "idx_appointment_date", columnList = "appointmentDate"))
 public class Appointment {
 
+    public static final String DOCTOR_DATE_CONSTRAINT = "uk_appointment_doctor_date";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+    @SequenceGenerator(name = "appointment_seq", sequenceName = "appointment_seq", allocationSize = 50)
     private int id;
 
+    @Version
+    private long version;
+
     private LocalDateTime appointmentDate;
 
     @ManyToOne
@@ -0,0 +1,36 @@
+package com.clinic.project1.model;
+
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Past appointment moved out of the hot appointment table. Keeps the original id and plain doctor/patient ids, so
+ * archived rows never take part in entity associations.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Builder
+@Table(name = "appointment_archive", indexes = {
+        @Index(name = "idx_appointment_archive_doctor", columnList = "doctorId"),
+        @Index(name = "idx_appointment_archive_patient", columnList = "patientId")})
+public class AppointmentArchive {
+
+    @Id
+    private int id;
+
+    private LocalDateTime appointmentDate;
+    private int doctorId;
+    private int patientId;
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,38 @@
+package com.clinic.project1.model;
+
+
+import com.clinic.project1.common.AppointmentEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appointment change written in the same transaction as the change itself and removed once the publisher has handed
+ * it to the sink. Holds plain ids only, so publishing never touches the appointment tables.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Builder
+@Table(name = "appointment_outbox")
+public class AppointmentOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_outbox_seq")
+    @SequenceGenerator(name = "appointment_outbox_seq", sequenceName = "appointment_outbox_seq", allocationSize = 50)
+    private long id;
+
+    @Enumerated(EnumType.STRING)
+    private AppointmentEventType type;
+
+    private int appointmentId;
+    private LocalDateTime appointmentDate;
+    private int doctorId;
+    private int patientId;
+    private LocalDateTime occurredAt;
+}
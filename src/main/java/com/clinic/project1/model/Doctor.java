@@ -1,10 +1,11 @@
 package com.clinic.project1.model;
 
-
+import com.clinic.project1.cache.ChangeStampListener;
 import com.clinic.project1.common.Specialization;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Set;
 
@@ -13,13 +14,19 @@ import java.util.Set;
 @Data
 @Builder
 @Entity
-@SQLDelete(sql = "UPDATE student SET deleted = '1' WHERE id = ?")
+@EntityListeners(ChangeStampListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Doctor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctor_seq")
+    @SequenceGenerator(name = "doctor_seq", sequenceName = "doctor_seq", allocationSize = 50)
     private int id;
 
+    @Version
+    private long version;
+
     private String firstName;
     private String lastName;
 
@@ -27,6 +34,7 @@ public class Doctor {
     @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "doctor_specialization", joinColumns = @JoinColumn(name = "doctor_id"))
     @Column(name = "specialization")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<Specialization> specializations;
 
     @OneToMany(mappedBy = "doctor")
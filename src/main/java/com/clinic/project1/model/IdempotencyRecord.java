@@ -0,0 +1,48 @@
+package com.clinic.project1.model;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response of a create request stored under its scope and Idempotency-Key, committed together with the created row.
+ * Always inserted, never merged, so two requests racing on one key fail on the primary key instead of overwriting.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Builder
+@Table(name = "idempotency_key", indexes = @Index(name = "idx_idempotency_key_expires_at", columnList = "expiresAt"))
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false, length = 8192)
+    private byte[] response;
+
+    private LocalDateTime expiresAt;
+
+    @Transient
+    private boolean persisted;
+
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+}
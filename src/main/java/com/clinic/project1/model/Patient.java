@@ -1,13 +1,12 @@
 package com.clinic.project1.model;
 
-
+import com.clinic.project1.cache.ChangeStampListener;
 import com.clinic.project1.common.Disease;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.SQLDelete;
 
 import java.util.Set;
 
@@ -15,14 +14,18 @@ import java.util.Set;
 @NoArgsConstructor
 @Data
 @Entity
+@EntityListeners(ChangeStampListener.class)
 @Builder
-@SQLDelete(sql = "UPDATE doctor SET deleted = '1' Where id = ?")
 public class Patient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_seq")
+    @SequenceGenerator(name = "patient_seq", sequenceName = "patient_seq", allocationSize = 50)
     private int id;
 
+    @Version
+    private long version;
+
     private String firstName;
     private String lastName;
 
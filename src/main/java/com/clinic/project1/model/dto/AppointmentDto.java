@@ -1,5 +1,6 @@
 package com.clinic.project1.model.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -7,6 +8,7 @@ import java.time.LocalDateTime;
 
 @Getter
 @Builder
+@AllArgsConstructor
 public class AppointmentDto {
     private int id;
     private LocalDateTime appointmentDate;
@@ -0,0 +1,21 @@
+package com.clinic.project1.model.dto;
+
+import com.clinic.project1.common.AppointmentEventType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class AppointmentEventDto {
+    private long eventId;
+    private AppointmentEventType type;
+    private int appointmentId;
+    private LocalDateTime appointmentDate;
+    private int doctorId;
+    private int patientId;
+    private LocalDateTime occurredAt;
+}
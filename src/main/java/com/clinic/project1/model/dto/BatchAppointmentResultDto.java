@@ -0,0 +1,16 @@
+package com.clinic.project1.model.dto;
+
+import com.clinic.project1.common.BatchItemStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class BatchAppointmentResultDto {
+    private int index;
+    private BatchItemStatus status;
+    private AppointmentDto appointment;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package com.clinic.project1.model.dto;
+
+import com.clinic.project1.common.Specialization;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class DailyStatsDto {
+    private LocalDate day;
+    private long total;
+    private Map<Integer, Long> doctors;
+    private Map<Specialization, Long> specializations;
+}
@@ -1,6 +1,7 @@
 package com.clinic.project1.model.dto;
 
 import com.clinic.project1.common.Specialization;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -8,6 +9,7 @@ import java.util.Set;
 
 @Getter
 @Builder
+@AllArgsConstructor
 public class DoctorDto {
     private int id;
     private String firstName;
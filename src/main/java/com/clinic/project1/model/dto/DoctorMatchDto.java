@@ -0,0 +1,16 @@
+package com.clinic.project1.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class DoctorMatchDto {
+    private int id;
+    private String firstName;
+    private String lastName;
+    private long patientCount;
+    private long upcomingAppointmentCount;
+}
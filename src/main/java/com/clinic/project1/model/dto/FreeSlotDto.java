@@ -0,0 +1,15 @@
+package com.clinic.project1.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class FreeSlotDto {
+    private int doctorId;
+    private LocalDateTime start;
+}
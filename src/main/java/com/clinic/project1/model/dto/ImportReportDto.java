@@ -0,0 +1,16 @@
+package com.clinic.project1.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class ImportReportDto {
+    private long imported;
+    private long rejected;
+    private List<RejectedRowDto> rejectedRows;
+}
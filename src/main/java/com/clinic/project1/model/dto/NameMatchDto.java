@@ -0,0 +1,15 @@
+package com.clinic.project1.model.dto;
+
+import com.clinic.project1.model.projection.PersonNameView;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class NameMatchDto implements PersonNameView {
+    private int id;
+    private String firstName;
+    private String lastName;
+}
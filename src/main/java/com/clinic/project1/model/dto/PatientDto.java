@@ -1,11 +1,13 @@
 package com.clinic.project1.model.dto;
 
 import com.clinic.project1.common.Disease;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 
 @Getter
 @Builder
+@AllArgsConstructor
 public class PatientDto {
     private int id;
     private String firstName;
@@ -0,0 +1,13 @@
+package com.clinic.project1.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class RejectedRowDto {
+    private long line;
+    private String error;
+}
@@ -0,0 +1,11 @@
+package com.clinic.project1.model.projection;
+
+import java.time.LocalDate;
+
+public interface DailyDoctorCountView {
+    int getDoctorId();
+
+    LocalDate getDay();
+
+    long getAppointmentCount();
+}
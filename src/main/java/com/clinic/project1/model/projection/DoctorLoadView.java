@@ -0,0 +1,13 @@
+package com.clinic.project1.model.projection;
+
+public interface DoctorLoadView {
+    int getId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    long getPatientCount();
+
+    long getUpcomingAppointmentCount();
+}
@@ -0,0 +1,9 @@
+package com.clinic.project1.model.projection;
+
+import java.time.LocalDateTime;
+
+public interface DoctorSlotView {
+    int getDoctorId();
+
+    LocalDateTime getAppointmentDate();
+}
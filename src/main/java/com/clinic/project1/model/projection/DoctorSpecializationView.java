@@ -0,0 +1,9 @@
+package com.clinic.project1.model.projection;
+
+import com.clinic.project1.common.Specialization;
+
+public interface DoctorSpecializationView {
+    int getDoctorId();
+
+    Specialization getSpecialization();
+}
@@ -0,0 +1,9 @@
+package com.clinic.project1.model.projection;
+
+public interface PersonNameView {
+    int getId();
+
+    String getFirstName();
+
+    String getLastName();
+}
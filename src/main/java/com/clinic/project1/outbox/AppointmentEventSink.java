@@ -0,0 +1,14 @@
+package com.clinic.project1.outbox;
+
+import com.clinic.project1.model.dto.AppointmentEventDto;
+
+import java.util.List;
+
+/**
+ * Destination of published appointment events. A batch is removed from the outbox only when {@link #publish} returns
+ * normally, so delivery is at-least-once and implementations should throw rather than drop events.
+ */
+public interface AppointmentEventSink {
+
+    void publish(List<AppointmentEventDto> events);
+}
@@ -0,0 +1,53 @@
+package com.clinic.project1.outbox;
+
+import com.clinic.project1.model.dto.AppointmentEventDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends every batch to a local NDJSON file. Stand-in for a message broker until billing and reminders have one.
+ */
+@Component
+@ConditionalOnProperty(name = "clinic.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileAppointmentEventSink implements AppointmentEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    public FileAppointmentEventSink(ObjectMapper objectMapper,
+                                    @Value("${clinic.outbox.file:${clinic.data-dir:data}/appointment-events.ndjson}") Path file) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void publish(List<AppointmentEventDto> events) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (AppointmentEventDto event : events) {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
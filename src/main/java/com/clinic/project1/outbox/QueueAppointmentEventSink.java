@@ -0,0 +1,31 @@
+package com.clinic.project1.outbox;
+
+import com.clinic.project1.model.dto.AppointmentEventDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Keeps published events in memory, for tests and local runs without a file system to write to.
+ */
+@Component
+@ConditionalOnProperty(name = "clinic.outbox.sink", havingValue = "queue")
+public class QueueAppointmentEventSink implements AppointmentEventSink {
+
+    private final BlockingQueue<AppointmentEventDto> events = new LinkedBlockingQueue<>();
+
+    @Override
+    public void publish(List<AppointmentEventDto> events) {
+        this.events.addAll(events);
+    }
+
+    public List<AppointmentEventDto> drain() {
+        List<AppointmentEventDto> drained = new ArrayList<>();
+        events.drainTo(drained);
+        return drained;
+    }
+}
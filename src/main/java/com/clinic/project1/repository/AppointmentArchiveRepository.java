@@ -0,0 +1,16 @@
+package com.clinic.project1.repository;
+
+import com.clinic.project1.model.AppointmentArchive;
+import com.clinic.project1.model.dto.AppointmentDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface AppointmentArchiveRepository extends JpaRepository<AppointmentArchive, Integer> {
+
+    @Query("select new com.clinic.project1.model.dto.AppointmentDto(a.id, a.appointmentDate, a.doctorId, a.patientId) "
+            + "from AppointmentArchive a where a.id > :id "
+            + "and (:doctorId is null or a.doctorId = :doctorId) and (:patientId is null or a.patientId = :patientId)")
+    Slice<AppointmentDto> findDtoByIdGreaterThan(int id, Integer doctorId, Integer patientId, Pageable pageable);
+}
@@ -0,0 +1,18 @@
+package com.clinic.project1.repository;
+
+import com.clinic.project1.model.AppointmentOutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface AppointmentOutboxRepository extends JpaRepository<AppointmentOutboxEvent, Long> {
+
+    // Row locks keep two publishers from sending the same batch.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from AppointmentOutboxEvent e order by e.id")
+    List<AppointmentOutboxEvent> findOldest(Pageable pageable);
+}
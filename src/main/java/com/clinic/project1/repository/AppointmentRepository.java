@@ -1,7 +1,74 @@
 package com.clinic.project1.repository;
 
 import com.clinic.project1.model.Appointment;
+import com.clinic.project1.model.dto.AppointmentDto;
+import com.clinic.project1.model.projection.DailyDoctorCountView;
+import com.clinic.project1.model.projection.DoctorSlotView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Integer> {
+
+    @Query("select new com.clinic.project1.model.dto.AppointmentDto(a.id, a.appointmentDate, a.doctor.id, a.patient.id) "
+            + "from Appointment a where a.id > :id")
+    Slice<AppointmentDto> findDtoByIdGreaterThan(int id, Pageable pageable);
+
+    @Query("select new com.clinic.project1.model.dto.AppointmentDto(a.id, a.appointmentDate, a.doctor.id, a.patient.id) "
+            + "from Appointment a where a.id = :id")
+    Optional<AppointmentDto> findDtoById(int id);
+
+    // Both schedule queries are range scans on the (doctor_id, appointment_date) key. The date is unique per doctor,
+    // so it doubles as the keyset cursor and the cost follows the window, not the doctor's whole history.
+    @Query("select new com.clinic.project1.model.dto.AppointmentDto(a.id, a.appointmentDate, a.doctor.id, a.patient.id) "
+            + "from Appointment a where a.doctor.id = :doctorId and a.appointmentDate >= :from and a.appointmentDate < :to")
+    Slice<AppointmentDto> findDtoByDoctorIdInRange(int doctorId, LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    @Query("select new com.clinic.project1.model.dto.AppointmentDto(a.id, a.appointmentDate, a.doctor.id, a.patient.id) "
+            + "from Appointment a where a.doctor.id = :doctorId and a.appointmentDate > :after and a.appointmentDate < :to")
+    Slice<AppointmentDto> findDtoByDoctorIdAfter(int doctorId, LocalDateTime after, LocalDateTime to, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    // Constructor projection: streaming entities would load each row's EAGER doctor and patient one by one.
+    @Query("select new com.clinic.project1.model.dto.AppointmentDto(a.id, a.appointmentDate, a.doctor.id, a.patient.id) "
+            + "from Appointment a order by a.id")
+    Stream<AppointmentDto> streamAllDto();
+
+    // Written out so the predicate stays on appointment.doctor_id and hits the (doctor_id, appointment_date) key;
+    // the derived query joined doctor and filtered on doctor.id, which H2 could not serve from that index.
+    @Query("select count(a) > 0 from Appointment a "
+            + "where a.doctor.id = :doctorId and a.appointmentDate = :appointmentDate")
+    boolean existsByDoctorIdAndAppointmentDate(int doctorId, LocalDateTime appointmentDate);
+
+    @Query("select a.doctor.id as doctorId, a.appointmentDate as appointmentDate from Appointment a "
+            + "where a.doctor.id in :doctorIds and a.appointmentDate in :appointmentDates")
+    List<DoctorSlotView> findOccupiedSlots(Collection<Integer> doctorIds, Collection<LocalDateTime> appointmentDates);
+
+    @Query("select a.doctor.id as doctorId, a.appointmentDate as appointmentDate from Appointment a "
+            + "where a.appointmentDate >= :from")
+    List<DoctorSlotView> findSlotsFrom(LocalDateTime from);
+
+    // One statement over both tables, so an archive batch committing mid-count cannot be counted twice or not at all.
+    @Query("select u.doctorId as doctorId, cast(u.appointmentDate as LocalDate) as day, count(*) as appointmentCount "
+            + "from (select a.doctor.id as doctorId, a.appointmentDate as appointmentDate from Appointment a "
+            + "union all select r.doctorId, r.appointmentDate from AppointmentArchive r) u "
+            + "group by u.doctorId, cast(u.appointmentDate as LocalDate)")
+    List<DailyDoctorCountView> countBookedAndArchivedByDoctorAndDay();
+
+    @Query("select a.doctor.id from Appointment a where a.id = :id")
+    Optional<Integer> findDoctorIdById(int id);
+
+    @Query("select a.version from Appointment a where a.id = :id")
+    Optional<Long> findVersionById(int id);
 }
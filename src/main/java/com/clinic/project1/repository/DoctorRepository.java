@@ -1,7 +1,57 @@
 package com.clinic.project1.repository;
 
 import com.clinic.project1.model.Doctor;
+import com.clinic.project1.model.projection.DoctorLoadView;
+import com.clinic.project1.model.projection.DoctorSpecializationView;
+import com.clinic.project1.model.projection.DoctorView;
+import com.clinic.project1.model.projection.PersonNameView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface DoctorRepository extends JpaRepository<Doctor, Integer> {
+
+    Slice<DoctorView> findViewsByIdGreaterThan(int id, Pageable pageable);
+
+    @Query("select d.id as doctorId, s as specialization from Doctor d join d.specializations s "
+            + "where d.id in :doctorIds")
+    List<DoctorSpecializationView> findSpecializationsByDoctorIdIn(Collection<Integer> doctorIds);
+
+    @Query("select d.id as doctorId, s as specialization from Doctor d join d.specializations s")
+    List<DoctorSpecializationView> findAllSpecializations();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select d from Doctor d order by d.id")
+    Stream<Doctor> streamAll();
+
+    @Query("select d.id as id, d.firstName as firstName, d.lastName as lastName, "
+            + "(select count(p) from Patient p where p.doctor.id = d.id) as patientCount, "
+            + "(select count(a) from Appointment a where a.doctor.id = d.id and a.appointmentDate >= :from) "
+            + "as upcomingAppointmentCount "
+            + "from Doctor d where d.id in :ids")
+    List<DoctorLoadView> findLoadsByIdIn(Collection<Integer> ids, LocalDateTime from);
+
+    @Query("select d.id from Doctor d")
+    List<Integer> findAllIds();
+
+    @Query("select d.id as id, d.firstName as firstName, d.lastName as lastName from Doctor d")
+    List<PersonNameView> findAllNames();
+
+    @Query("select d.id from Doctor d where d.id in :ids")
+    Set<Integer> findExistingIds(Collection<Integer> ids);
+
+    @Query("select d.version from Doctor d where d.id = :id")
+    Optional<Long> findVersionById(int id);
 }
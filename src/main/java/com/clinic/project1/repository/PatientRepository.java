@@ -1,7 +1,43 @@
 package com.clinic.project1.repository;
 
 import com.clinic.project1.model.Patient;
+import com.clinic.project1.model.dto.PatientDto;
+import com.clinic.project1.model.projection.PersonNameView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface PatientRepository extends JpaRepository<Patient, Integer> {
+
+    @Query("select new com.clinic.project1.model.dto.PatientDto(p.id, p.firstName, p.lastName, p.disease, "
+            + "coalesce(p.doctor.id, 0)) from Patient p where p.id > :id")
+    Slice<PatientDto> findDtoByIdGreaterThan(int id, Pageable pageable);
+
+    @Query("select new com.clinic.project1.model.dto.PatientDto(p.id, p.firstName, p.lastName, p.disease, "
+            + "coalesce(p.doctor.id, 0)) from Patient p where p.id = :id")
+    Optional<PatientDto> findDtoById(int id);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select p from Patient p order by p.id")
+    Stream<Patient> streamAll();
+
+    @Query("select p.id as id, p.firstName as firstName, p.lastName as lastName from Patient p")
+    List<PersonNameView> findAllNames();
+
+    @Query("select p.id from Patient p where p.id in :ids")
+    Set<Integer> findExistingIds(Collection<Integer> ids);
+
+    @Query("select p.version from Patient p where p.id = :id")
+    Optional<Long> findVersionById(int id);
 }
@@ -0,0 +1,56 @@
+package com.clinic.project1.schedule;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped per-doctor locks serialising bookings for the same doctor within one instance, so bookings for doctors on
+ * different stripes never contend. A lock is held until the surrounding transaction completes, which lets the next
+ * availability check see the committed appointment. Across instances the unique (doctor_id, appointment_date)
+ * constraint is the guard.
+ */
+@Component
+public class BookingLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public BookingLocks(@Value("${clinic.booking.lock-stripes:64}") int stripeCount) {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilCompletion(int doctorId) {
+        lockUntilCompletion(List.of(doctorId));
+    }
+
+    // Stripes are always taken in ascending order, so bookings spanning several doctors cannot deadlock.
+    public void lockUntilCompletion(Collection<Integer> doctorIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Booking locks can only be taken inside a transaction");
+        }
+        int[] indexes = doctorIds.stream()
+                .mapToInt(doctorId -> Math.floorMod(doctorId, stripes.length))
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int index : indexes) {
+            stripes[index].lock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = indexes.length - 1; i >= 0; i--) {
+                    stripes[indexes[i]].unlock();
+                }
+            }
+        });
+    }
+}
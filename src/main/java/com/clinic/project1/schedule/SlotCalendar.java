@@ -0,0 +1,212 @@
+package com.clinic.project1.schedule;
+
+import com.clinic.project1.common.AfterCommit;
+import com.clinic.project1.datasource.ReadWriteRoutingDataSource;
+import com.clinic.project1.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-doctor occupancy kept in memory as one bitset per day, one bit per slot of the working day.
+ */
+@Component
+public class SlotCalendar {
+
+    private final AppointmentRepository appointmentRepository;
+    private final int slotMinutes;
+    private final LocalTime openingTime;
+    private final int slotsPerDay;
+    private final int horizonDays;
+    private final Map<Integer, DoctorCalendar> calendars = new ConcurrentHashMap<>();
+
+    public SlotCalendar(AppointmentRepository appointmentRepository,
+                        @Value("${clinic.schedule.slot-minutes:30}") int slotMinutes,
+                        @Value("${clinic.schedule.opening-time:08:00}") String openingTime,
+                        @Value("${clinic.schedule.closing-time:16:00}") String closingTime,
+                        @Value("${clinic.schedule.horizon-days:90}") int horizonDays) {
+        this.appointmentRepository = appointmentRepository;
+        this.slotMinutes = slotMinutes;
+        this.openingTime = LocalTime.parse(openingTime);
+        this.slotsPerDay = (LocalTime.parse(closingTime).toSecondOfDay() - this.openingTime.toSecondOfDay())
+                / 60 / slotMinutes;
+        this.horizonDays = horizonDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        calendars.clear();
+        ReadWriteRoutingDataSource.onPrimary(() -> appointmentRepository.findSlotsFrom(LocalDate.now().atStartOfDay())
+                .forEach(slot -> mark(slot.getDoctorId(), slot.getAppointmentDate(), true)));
+    }
+
+    // Days before today can no longer be booked or searched; dropping them keeps memory bounded by the horizon.
+    @Scheduled(initialDelayString = "${clinic.schedule.prune-interval:PT1H}",
+            fixedDelayString = "${clinic.schedule.prune-interval:PT1H}")
+    public void prunePastDays() {
+        pruneBefore(LocalDate.now());
+    }
+
+    public void pruneBefore(LocalDate day) {
+        calendars.values().forEach(calendar -> calendar.pruneBefore(day.toEpochDay()));
+    }
+
+    public void occupy(int doctorId, LocalDateTime appointmentDate) {
+        AfterCommit.run(() -> mark(doctorId, appointmentDate, true));
+    }
+
+    public void release(int doctorId, LocalDateTime appointmentDate) {
+        AfterCommit.run(() -> mark(doctorId, appointmentDate, false));
+    }
+
+    public void move(int oldDoctorId, LocalDateTime oldDate, int newDoctorId, LocalDateTime newDate) {
+        AfterCommit.run(() -> {
+            mark(oldDoctorId, oldDate, false);
+            mark(newDoctorId, newDate, true);
+        });
+    }
+
+    public List<LocalDateTime> findFreeSlots(int doctorId, LocalDateTime from, int count) {
+        List<LocalDateTime> freeSlots = new ArrayList<>(count);
+        DoctorCalendar calendar = calendars.get(doctorId);
+        for (int i = 0; i <= horizonDays && freeSlots.size() < count; i++) {
+            LocalDate day = from.toLocalDate().plusDays(i);
+            int slot = i == 0 ? firstSlotNotBefore(from.toLocalTime()) : 0;
+            while (freeSlots.size() < count) {
+                if (calendar != null) {
+                    slot = calendar.nextFree(day.toEpochDay(), slot);
+                }
+                if (slot >= slotsPerDay) {
+                    break;
+                }
+                freeSlots.add(startOf(day, slot++));
+            }
+        }
+        return freeSlots;
+    }
+
+    public Optional<LocalDateTime> findEarliestFreeSlot(int doctorId, LocalDateTime from) {
+        return findFreeSlots(doctorId, from, 1).stream().findFirst();
+    }
+
+    private void mark(int doctorId, LocalDateTime appointmentDate, boolean occupied) {
+        int slot = slotOf(appointmentDate.toLocalTime());
+        if (slot < 0) {
+            return;
+        }
+        long epochDay = appointmentDate.toLocalDate().toEpochDay();
+        DoctorCalendar calendar = calendars.computeIfAbsent(doctorId, id -> new DoctorCalendar());
+        if (occupied) {
+            calendar.occupy(epochDay, slot);
+        } else {
+            calendar.release(epochDay, slot);
+        }
+    }
+
+    private int slotOf(LocalTime time) {
+        int minutes = (time.toSecondOfDay() - openingTime.toSecondOfDay()) / 60;
+        if (minutes < 0 || minutes / slotMinutes >= slotsPerDay) {
+            return -1;
+        }
+        return minutes / slotMinutes;
+    }
+
+    private int firstSlotNotBefore(LocalTime time) {
+        int seconds = time.toSecondOfDay() - openingTime.toSecondOfDay();
+        if (seconds <= 0) {
+            return 0;
+        }
+        int slotSeconds = slotMinutes * 60;
+        return (seconds + slotSeconds - 1) / slotSeconds;
+    }
+
+    private LocalDateTime startOf(LocalDate day, int slot) {
+        return day.atTime(openingTime).plusMinutes((long) slot * slotMinutes);
+    }
+
+    // Slots holding more than one appointment are counted in extraBookings so a release keeps them occupied.
+    // Guarded by a ReentrantLock rather than synchronized so a virtual thread booking a slot never pins its carrier.
+    private static class DoctorCalendar {
+
+        private final Lock lock = new ReentrantLock();
+        private final Map<Long, BitSet> days = new HashMap<>();
+        private final Map<Long, Integer> extraBookings = new HashMap<>();
+
+        void occupy(long epochDay, int slot) {
+            lock.lock();
+            try {
+                BitSet day = days.computeIfAbsent(epochDay, d -> new BitSet());
+                if (day.get(slot)) {
+                    extraBookings.merge(key(epochDay, slot), 1, Integer::sum);
+                } else {
+                    day.set(slot);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(long epochDay, int slot) {
+            lock.lock();
+            try {
+                Integer extra = extraBookings.get(key(epochDay, slot));
+                if (extra != null) {
+                    if (extra == 1) {
+                        extraBookings.remove(key(epochDay, slot));
+                    } else {
+                        extraBookings.put(key(epochDay, slot), extra - 1);
+                    }
+                    return;
+                }
+                BitSet day = days.get(epochDay);
+                if (day != null) {
+                    day.clear(slot);
+                    if (day.isEmpty()) {
+                        days.remove(epochDay);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void pruneBefore(long epochDay) {
+            lock.lock();
+            try {
+                days.keySet().removeIf(day -> day < epochDay);
+                extraBookings.keySet().removeIf(key -> key < key(epochDay, 0));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int nextFree(long epochDay, int fromSlot) {
+            lock.lock();
+            try {
+                BitSet day = days.get(epochDay);
+                return day == null ? fromSlot : day.nextClearBit(fromSlot);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private static long key(long epochDay, int slot) {
+            return epochDay * 1440 + slot;
+        }
+    }
+}
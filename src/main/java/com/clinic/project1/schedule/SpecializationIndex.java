@@ -0,0 +1,107 @@
+package com.clinic.project1.schedule;
+
+import com.clinic.project1.common.AfterCommit;
+import com.clinic.project1.datasource.ReadWriteRoutingDataSource;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.repository.DoctorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Doctor ids per specialization, kept in memory as one bitset per specialization, plus one bitset of all doctor ids.
+ */
+@Component
+@RequiredArgsConstructor
+public class SpecializationIndex {
+
+    private final DoctorRepository doctorRepository;
+    private final Map<Specialization, BitSet> doctorsBySpecialization = new EnumMap<>(Specialization.class);
+    private final BitSet doctors = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            doctorsBySpecialization.clear();
+            doctors.clear();
+            ReadWriteRoutingDataSource.onPrimary(() -> {
+                doctorRepository.findAllIds().forEach(doctors::set);
+                doctorRepository.findAllSpecializations().forEach(row -> doctorsBySpecialization
+                        .computeIfAbsent(row.getSpecialization(), specialization -> new BitSet())
+                        .set(row.getDoctorId()));
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(int doctorId, Set<Specialization> specializations) {
+        AfterCommit.run(() -> replace(doctorId, true, specializations));
+    }
+
+    public void remove(int doctorId) {
+        AfterCommit.run(() -> replace(doctorId, false, Set.of()));
+    }
+
+    public boolean contains(int doctorId) {
+        lock.readLock().lock();
+        try {
+            return doctors.get(doctorId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<Specialization> specializationsOf(int doctorId) {
+        lock.readLock().lock();
+        try {
+            Set<Specialization> specializations = EnumSet.noneOf(Specialization.class);
+            doctorsBySpecialization.forEach((specialization, doctors) -> {
+                if (doctors.get(doctorId)) {
+                    specializations.add(specialization);
+                }
+            });
+            return specializations;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public IntStream doctorsWith(Specialization specialization) {
+        lock.readLock().lock();
+        try {
+            BitSet doctors = doctorsBySpecialization.get(specialization);
+            return doctors == null ? IntStream.empty() : ((BitSet) doctors.clone()).stream();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void replace(int doctorId, boolean exists, Set<Specialization> specializations) {
+        lock.writeLock().lock();
+        try {
+            doctors.set(doctorId, exists);
+            for (Specialization specialization : Specialization.values()) {
+                if (specializations != null && specializations.contains(specialization)) {
+                    doctorsBySpecialization.computeIfAbsent(specialization, s -> new BitSet()).set(doctorId);
+                } else if (doctorsBySpecialization.containsKey(specialization)) {
+                    doctorsBySpecialization.get(specialization).clear(doctorId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
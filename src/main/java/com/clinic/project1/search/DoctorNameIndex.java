@@ -0,0 +1,20 @@
+package com.clinic.project1.search;
+
+import com.clinic.project1.datasource.ReadWriteRoutingDataSource;
+import com.clinic.project1.repository.DoctorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class DoctorNameIndex extends NameIndex {
+
+    private final DoctorRepository doctorRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        replaceAll(ReadWriteRoutingDataSource.onPrimary(doctorRepository::findAllNames));
+    }
+}
@@ -0,0 +1,276 @@
+package com.clinic.project1.search;
+
+import com.clinic.project1.common.AfterCommit;
+import com.clinic.project1.model.dto.NameMatchDto;
+import com.clinic.project1.model.projection.PersonNameView;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * First and last names folded to lower-case ASCII tokens, each mapped to the sorted ids carrying it. A term matches a
+ * token it prefixes, or, from {@value #FUZZY_MIN_LENGTH} characters on, a token one edit away. Every term of a query
+ * has to match one of the person's tokens.
+ */
+public class NameIndex {
+
+    public static final String DEFAULT_LIMIT = "20";
+    public static final int MAX_LIMIT = 100;
+    static final int FUZZY_MIN_LENGTH = 4;
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789";
+
+    private final NavigableMap<String, IdList> tokens = new TreeMap<>();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(int id, String firstName, String lastName) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                unindex(id);
+                index(id, firstName, lastName);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // One after-commit hook and one lock acquisition for a whole bulk-import chunk.
+    public void putAll(Collection<? extends PersonNameView> names) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                names.forEach(name -> {
+                    unindex(name.getId());
+                    index(name.getId(), name.getFirstName(), name.getLastName());
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(int id) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                unindex(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // Ranked by how the longest term matches: the exact token, then tokens it prefixes in order, then one-edit tokens.
+    public List<NameMatchDto> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String driver = terms.get(0);
+        for (String term : terms) {
+            if (term.length() > driver.length()) {
+                driver = term;
+            }
+        }
+        limit = Math.min(limit, MAX_LIMIT);
+        List<NameMatchDto> matches = new ArrayList<>(limit);
+        Set<Integer> seen = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (String token : tokens.subMap(driver, true, driver + Character.MAX_VALUE, false).keySet()) {
+                if (collect(token, terms, seen, matches, limit)) {
+                    return matches;
+                }
+            }
+            if (driver.length() >= FUZZY_MIN_LENGTH) {
+                for (String token : fuzzyTokens(driver)) {
+                    if (collect(token, terms, seen, matches, limit)) {
+                        return matches;
+                    }
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    protected void replaceAll(Collection<? extends PersonNameView> names) {
+        lock.writeLock().lock();
+        try {
+            tokens.clear();
+            entries.clear();
+            names.forEach(name -> index(name.getId(), name.getFirstName(), name.getLastName()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            switch (Character.toLowerCase(c)) {
+                case 'ł' -> folded.append('l');
+                case 'ø' -> folded.append('o');
+                case 'đ' -> folded.append('d');
+                case 'ß' -> folded.append("ss");
+                case 'æ' -> folded.append("ae");
+                default -> folded.append(Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : ' ');
+            }
+        }
+        return Arrays.stream(folded.toString().trim().split(" +"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    static boolean withinOneEdit(String a, String b) {
+        if (Math.abs(a.length() - b.length()) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < a.length() && i < b.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (a.length() == b.length()) {
+            if (i >= a.length() - 1) {
+                return true;
+            }
+            return a.regionMatches(i + 1, b, i + 1, a.length() - i - 1)
+                    || a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                    && a.regionMatches(i + 2, b, i + 2, a.length() - i - 2);
+        }
+        String longer = a.length() > b.length() ? a : b;
+        String shorter = longer == a ? b : a;
+        return longer.regionMatches(i + 1, shorter, i, shorter.length() - i);
+    }
+
+    private boolean collect(String token, List<String> terms, Set<Integer> seen, List<NameMatchDto> matches, int limit) {
+        IdList ids = tokens.get(token);
+        for (int i = 0; i < ids.size; i++) {
+            Entry entry = entries.get(ids.ids[i]);
+            if (seen.add(entry.id()) && terms.stream().allMatch(entry::matches)) {
+                matches.add(new NameMatchDto(entry.id(), entry.firstName(), entry.lastName()));
+                if (matches.size() >= limit) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Probes every one-edit variant of the term instead of keeping a deletion index next to the tokens.
+    private Set<String> fuzzyTokens(String term) {
+        Set<String> found = new TreeSet<>();
+        StringBuilder variant = new StringBuilder(term.length() + 1);
+        for (int i = 0; i <= term.length(); i++) {
+            if (i < term.length()) {
+                probe(found, term, variant.replace(0, variant.length(), term).deleteCharAt(i));
+                if (i < term.length() - 1) {
+                    variant.replace(0, variant.length(), term);
+                    variant.setCharAt(i, term.charAt(i + 1));
+                    variant.setCharAt(i + 1, term.charAt(i));
+                    probe(found, term, variant);
+                }
+            }
+            for (int c = 0; c < ALPHABET.length(); c++) {
+                probe(found, term, variant.replace(0, variant.length(), term).insert(i, ALPHABET.charAt(c)));
+                if (i < term.length()) {
+                    variant.replace(0, variant.length(), term).setCharAt(i, ALPHABET.charAt(c));
+                    probe(found, term, variant);
+                }
+            }
+        }
+        return found;
+    }
+
+    private void probe(Set<String> found, String term, CharSequence variant) {
+        String token = variant.toString();
+        if (!token.startsWith(term) && tokens.containsKey(token)) {
+            found.add(token);
+        }
+    }
+
+    private void index(int id, String firstName, String lastName) {
+        List<String> nameTokens = new ArrayList<>(tokenize(firstName));
+        tokenize(lastName).stream().filter(token -> !nameTokens.contains(token)).forEach(nameTokens::add);
+        entries.put(id, new Entry(id, firstName, lastName, nameTokens.toArray(String[]::new)));
+        nameTokens.forEach(token -> tokens.computeIfAbsent(token, t -> new IdList()).add(id));
+    }
+
+    private void unindex(int id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String token : entry.tokens()) {
+            IdList ids = tokens.get(token);
+            if (ids != null && ids.remove(id)) {
+                tokens.remove(token);
+            }
+        }
+    }
+
+    private record Entry(int id, String firstName, String lastName, String[] tokens) {
+
+        boolean matches(String term) {
+            for (String token : tokens) {
+                if (token.startsWith(term) || term.length() >= FUZZY_MIN_LENGTH && withinOneEdit(term, token)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Sorted int array rather than a Set<Integer>, so a million names do not cost a boxed id and a node apiece.
+    private static class IdList {
+
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+            return size == 0;
+        }
+    }
+}
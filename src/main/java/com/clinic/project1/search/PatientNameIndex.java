@@ -0,0 +1,20 @@
+package com.clinic.project1.search;
+
+import com.clinic.project1.datasource.ReadWriteRoutingDataSource;
+import com.clinic.project1.repository.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PatientNameIndex extends NameIndex {
+
+    private final PatientRepository patientRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        replaceAll(ReadWriteRoutingDataSource.onPrimary(patientRepository::findAllNames));
+    }
+}
@@ -0,0 +1,100 @@
+package com.clinic.project1.service;
+
+
+import com.clinic.project1.cache.ChangeStamps;
+import com.clinic.project1.common.KeysetPagination;
+import com.clinic.project1.model.Appointment;
+import com.clinic.project1.model.AppointmentArchive;
+import com.clinic.project1.model.dto.AppointmentDto;
+import com.clinic.project1.repository.AppointmentArchiveRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Moves appointments older than the configured horizon into appointment_archive. Every batch is its own short
+ * transaction (select ids, INSERT ... SELECT, DELETE), so bookings, which only touch future dates, are never held up
+ * behind a long-running archival run.
+ */
+@Service
+public class AppointmentArchiveService {
+
+    private static final String INSERT_ARCHIVE = "insert into appointment_archive "
+            + "(id, appointment_date, doctor_id, patient_id, archived_at) "
+            + "select id, appointment_date, doctor_id, patient_id, :archivedAt from appointment where id in (:ids)";
+    private static final String DELETE_ARCHIVED = "delete from appointment where id in (:ids)";
+
+    private final AppointmentArchiveRepository appointmentArchiveRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeStamps changeStamps;
+    private final int afterDays;
+    private final int batchSize;
+
+    public AppointmentArchiveService(AppointmentArchiveRepository appointmentArchiveRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     ChangeStamps changeStamps,
+                                     @Value("${clinic.archive.after-days:30}") int afterDays,
+                                     @Value("${clinic.archive.batch-size:500}") int batchSize) {
+        this.appointmentArchiveRepository = appointmentArchiveRepository;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.changeStamps = changeStamps;
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${clinic.archive.interval:PT1H}", fixedDelayString = "${clinic.archive.interval:PT1H}")
+    public void archivePastAppointments() {
+        archiveBefore(LocalDate.now().minusDays(afterDays).atStartOfDay());
+    }
+
+    public int archiveBefore(LocalDateTime cutoff) {
+        int archived = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            archived += moved;
+        } while (moved == batchSize);
+        return archived;
+    }
+
+    public Slice<AppointmentDto> findHistory(Integer doctorId, Integer patientId, int after, int limit) {
+        return appointmentArchiveRepository.findDtoByIdGreaterThan(after, doctorId, patientId,
+                KeysetPagination.firstPageOf(limit));
+    }
+
+    public Optional<String> changeStamp() {
+        return changeStamps.stampOf(AppointmentArchive.class);
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Integer> ids = jdbcTemplate.queryForList(
+                "select id from appointment where appointment_date < :cutoff order by id limit :limit",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)).addValue("limit", batchSize),
+                Integer.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids)
+                .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update(INSERT_ARCHIVE, parameters);
+        jdbcTemplate.update(DELETE_ARCHIVED, parameters);
+        // Plain JDBC bypasses the entity listeners, so both list stamps are moved by hand.
+        changeStamps.bump(Appointment.class);
+        changeStamps.bump(AppointmentArchive.class);
+        return ids.size();
+    }
+}
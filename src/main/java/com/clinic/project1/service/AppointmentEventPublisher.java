@@ -0,0 +1,62 @@
+package com.clinic.project1.service;
+
+
+import com.clinic.project1.mapper.AppointmentMapper;
+import com.clinic.project1.model.AppointmentOutboxEvent;
+import com.clinic.project1.outbox.AppointmentEventSink;
+import com.clinic.project1.repository.AppointmentOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Drains appointment_outbox to the configured {@link AppointmentEventSink}. Each batch is read, published and deleted
+ * in one transaction, so a failing sink leaves the batch in place for the next run.
+ */
+@Service
+public class AppointmentEventPublisher {
+
+    private final AppointmentOutboxRepository appointmentOutboxRepository;
+    private final AppointmentEventSink appointmentEventSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public AppointmentEventPublisher(AppointmentOutboxRepository appointmentOutboxRepository,
+                                     AppointmentEventSink appointmentEventSink,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${clinic.outbox.batch-size:200}") int batchSize) {
+        this.appointmentOutboxRepository = appointmentOutboxRepository;
+        this.appointmentEventSink = appointmentEventSink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${clinic.outbox.interval:PT1S}", fixedDelayString = "${clinic.outbox.interval:PT1S}")
+    public void drainOutbox() {
+        publishPending();
+    }
+
+    public int publishPending() {
+        int published = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> publishBatch());
+            published += batch;
+        } while (batch == batchSize);
+        return published;
+    }
+
+    private int publishBatch() {
+        List<AppointmentOutboxEvent> events = appointmentOutboxRepository.findOldest(PageRequest.ofSize(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        appointmentEventSink.publish(events.stream().map(AppointmentMapper::mapToEventDto).toList());
+        appointmentOutboxRepository.deleteAllInBatch(events);
+        return events.size();
+    }
+}
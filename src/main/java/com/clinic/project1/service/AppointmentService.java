@@ -1,6 +1,13 @@
 package com.clinic.project1.service;
 
 
+import com.clinic.project1.cache.ChangeStamps;
+import com.clinic.project1.cache.JsonResponseCache;
+import com.clinic.project1.common.AppointmentEventType;
+import com.clinic.project1.common.BatchItemStatus;
+import com.clinic.project1.common.KeysetPagination;
+import com.clinic.project1.config.MetricsConfiguration;
+import com.clinic.project1.datasource.ReadWriteRoutingDataSource;
 import com.clinic.project1.exception.*;
 import com.clinic.project1.mapper.AppointmentMapper;
 import com.clinic.project1.model.Appointment;
@@ -10,15 +17,33 @@ import com.clinic.project1.model.command.create.CreateAppointmentCommand;
 import com.clinic.project1.model.command.update.FullUpdateAppointmentCommand;
 import com.clinic.project1.model.command.update.UpdateAppointmentDateCommand;
 import com.clinic.project1.model.dto.AppointmentDto;
+import com.clinic.project1.model.dto.BatchAppointmentResultDto;
+import com.clinic.project1.repository.AppointmentOutboxRepository;
 import com.clinic.project1.repository.AppointmentRepository;
 import com.clinic.project1.repository.DoctorRepository;
 import com.clinic.project1.repository.PatientRepository;
+import com.clinic.project1.schedule.BookingLocks;
+import com.clinic.project1.schedule.SlotCalendar;
+import com.clinic.project1.stats.DailyAppointmentCounters;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.text.MessageFormat;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -32,24 +57,45 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class AppointmentService {
 
     private final AppointmentRepository appointmentRepository;
+    private final AppointmentOutboxRepository appointmentOutboxRepository;
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
+    private final Validator validator;
+    private final SlotCalendar slotCalendar;
+    private final DailyAppointmentCounters dailyAppointmentCounters;
+    private final BookingLocks bookingLocks;
+    private final ChangeStamps changeStamps;
+    private final JsonResponseCache jsonResponseCache;
 
-    public List<AppointmentDto> findAll() {
-        return appointmentRepository.findAll().stream()
-                .map(AppointmentMapper::mapToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Slice<AppointmentDto> findAll(int after, int limit) {
+        return appointmentRepository.findDtoByIdGreaterThan(after, KeysetPagination.firstPageOf(limit));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<AppointmentDto> findByDoctor(int doctorId, LocalDateTime from, LocalDateTime to,
+            LocalDateTime after, int limit) {
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new DoctorWithIdNotFoundException(MessageFormat.format("Doctor with id {0} not found", doctorId));
+        }
+        Pageable page = KeysetPagination.firstPageOf(limit, "appointmentDate");
+        if (after != null && !after.isBefore(from)) {
+            return appointmentRepository.findDtoByDoctorIdAfter(doctorId, after, to, page);
+        }
+        return appointmentRepository.findDtoByDoctorIdInRange(doctorId, from, to, page);
     }
 
     @Transactional
     public AppointmentDto save(CreateAppointmentCommand command) {
+        bookingLocks.lockUntilCompletion(command.getDoctorId());
         Doctor doctor = doctorRepository.findById(command.getDoctorId())
                 .orElseThrow(() -> new DoctorWithIdNotFoundException(MessageFormat
                         .format("Doctor with id {0} not found", command.getDoctorId())));
-        validateDoctorAvailability(doctor, command.getDate());
+        validateDoctorAvailability(doctor.getId(), command.getDate());
         Patient patient = patientRepository.findById(command.getPatientId())
                 .orElseThrow(() -> new PatientWithIdNotFoundException(MessageFormat
                         .format("Patient with id {0} not found", command.getPatientId())));
@@ -59,43 +105,141 @@ public class AppointmentService {
                 .patient(patient)
                 .appointmentDate(command.getDate())
                 .build();
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        Appointment savedAppointment = saveBooking(appointment);
+        slotCalendar.occupy(doctor.getId(), savedAppointment.getAppointmentDate());
+        dailyAppointmentCounters.record(doctor.getId(), savedAppointment.getAppointmentDate());
+        appointmentOutboxRepository.save(AppointmentMapper.mapToOutboxEvent(savedAppointment, AppointmentEventType.CREATED));
         return AppointmentMapper.mapToDto(savedAppointment);
     }
 
+    @Transactional
+    public List<BatchAppointmentResultDto> saveAll(List<CreateAppointmentCommand> commands) {
+        BatchAppointmentResultDto[] results = new BatchAppointmentResultDto[commands.size()];
+        Set<Integer> doctorIds = new HashSet<>();
+        Set<Integer> patientIds = new HashSet<>();
+        Set<LocalDateTime> dates = new HashSet<>();
+        for (int i = 0; i < commands.size(); i++) {
+            CreateAppointmentCommand command = commands.get(i);
+            Set<ConstraintViolation<CreateAppointmentCommand>> violations = validator.validate(command);
+            if (!violations.isEmpty()) {
+                results[i] = rejected(i, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+            doctorIds.add(command.getDoctorId());
+            patientIds.add(command.getPatientId());
+            dates.add(command.getDate());
+        }
+        if (doctorIds.isEmpty()) {
+            return List.of(results);
+        }
+        bookingLocks.lockUntilCompletion(doctorIds);
+
+        Set<Integer> existingDoctorIds = doctorRepository.findExistingIds(doctorIds);
+        Set<Integer> existingPatientIds = patientRepository.findExistingIds(patientIds);
+        Map<Integer, Set<LocalDateTime>> occupiedSlots = new HashMap<>();
+        if (!existingDoctorIds.isEmpty()) {
+            appointmentRepository.findOccupiedSlots(existingDoctorIds, dates)
+                    .forEach(slot -> occupiedSlots.computeIfAbsent(slot.getDoctorId(), doctorId -> new HashSet<>())
+                            .add(slot.getAppointmentDate()));
+        }
+
+        List<Appointment> toSave = new ArrayList<>();
+        List<Integer> toSaveIndexes = new ArrayList<>();
+        for (int i = 0; i < commands.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            CreateAppointmentCommand command = commands.get(i);
+            if (!existingDoctorIds.contains(command.getDoctorId())) {
+                results[i] = rejected(i, MessageFormat.format("Doctor with id {0} not found", command.getDoctorId()));
+            } else if (!existingPatientIds.contains(command.getPatientId())) {
+                results[i] = rejected(i, MessageFormat.format("Patient with id {0} not found", command.getPatientId()));
+            } else if (!occupiedSlots.computeIfAbsent(command.getDoctorId(), doctorId -> new HashSet<>())
+                    .add(command.getDate())) {
+                results[i] = rejected(i, MessageFormat
+                        .format("Doctor has an appointment scheduled for date {0}", command.getDate()));
+            } else {
+                toSave.add(Appointment.builder()
+                        .doctor(doctorRepository.getReferenceById(command.getDoctorId()))
+                        .patient(patientRepository.getReferenceById(command.getPatientId()))
+                        .appointmentDate(command.getDate())
+                        .build());
+                toSaveIndexes.add(i);
+            }
+        }
+
+        List<Appointment> savedAppointments;
+        try {
+            savedAppointments = appointmentRepository.saveAll(toSave);
+            appointmentRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw doubleBookingOr(e, "Doctor has an appointment scheduled for one of the batch dates");
+        }
+        appointmentOutboxRepository.saveAll(savedAppointments.stream()
+                .map(appointment -> AppointmentMapper.mapToOutboxEvent(appointment, AppointmentEventType.CREATED))
+                .toList());
+        for (int i = 0; i < savedAppointments.size(); i++) {
+            int index = toSaveIndexes.get(i);
+            slotCalendar.occupy(commands.get(index).getDoctorId(), commands.get(index).getDate());
+            dailyAppointmentCounters.record(commands.get(index).getDoctorId(), commands.get(index).getDate());
+            results[index] = BatchAppointmentResultDto.builder()
+                    .index(index)
+                    .status(BatchItemStatus.CREATED)
+                    .appointment(AppointmentMapper.mapToDto(savedAppointments.get(i)))
+                    .build();
+        }
+        return List.of(results);
+    }
+
+    @Transactional(readOnly = true)
     public AppointmentDto findById(int id) {
-        return appointmentRepository.findById(id)
-                .map(AppointmentMapper::mapToDto)
+        return appointmentRepository.findDtoById(id)
                 .orElseThrow(() -> new AppointmentWithIdNotFoundException(MessageFormat
                         .format("Appointment with id {0} not found", id)));
     }
 
-    @Transactional
-    public AppointmentDto update(int id, FullUpdateAppointmentCommand command) {
-        Appointment appointment = appointmentRepository.findById(id)
+    @Transactional(readOnly = true)
+    public long findVersion(int id) {
+        return appointmentRepository.findVersionById(id)
                 .orElseThrow(() -> new AppointmentWithIdNotFoundException(MessageFormat
                         .format("Appointment with id {0} not found", id)));
+    }
+
+    public Optional<String> changeStamp() {
+        return changeStamps.stampOf(Appointment.class);
+    }
+
+    @Transactional
+    public AppointmentDto update(int id, FullUpdateAppointmentCommand command) {
+        Appointment appointment = findLocked(id, command.getDoctorId());
         validateDateIsNotInThePast(appointment.getAppointmentDate());
-        if (command.getAppointmentDate() != null) {
-            appointment.setAppointmentDate(command.getAppointmentDate());
-        }
+        int oldDoctorId = appointment.getDoctor().getId();
+        LocalDateTime oldDate = appointment.getAppointmentDate();
 
         if (command.getDoctorId() != 0) {
             Doctor doctor = doctorRepository.findById(command.getDoctorId())
                     .orElseThrow(() -> new DoctorWithIdNotFoundException(MessageFormat
                             .format("Doctor with id {0} not found", command.getDoctorId())));
             if (command.getAppointmentDate() != null) {
-                validateDoctorAvailability(doctor, command.getAppointmentDate());
+                validateDoctorAvailability(doctor.getId(), command.getAppointmentDate());
             } else {
-                validateDoctorAvailability(doctor, appointment.getAppointmentDate());
+                validateDoctorAvailability(doctor.getId(), appointment.getAppointmentDate());
             }
             appointment.setDoctor(doctor);
         } else {
             if (command.getAppointmentDate() != null) {
-                validateDoctorAvailability(appointment.getDoctor(), command.getAppointmentDate());
+                validateDoctorAvailability(appointment.getDoctor().getId(), command.getAppointmentDate());
             }
         }
 
+        // Set only after the availability queries, whose auto-flush would otherwise hit the unique key first.
+        if (command.getAppointmentDate() != null) {
+            appointment.setAppointmentDate(command.getAppointmentDate());
+        }
+
         if (command.getPatientId() != 0) {
             Patient patient = patientRepository.findById(command.getPatientId())
                     .orElseThrow(() -> new PatientWithIdNotFoundException(MessageFormat
@@ -103,20 +247,32 @@ public class AppointmentService {
             appointment.setPatient(patient);
         }
 
-        return AppointmentMapper.mapToDto(appointmentRepository.save(appointment));
+        Appointment savedAppointment = saveBooking(appointment);
+        slotCalendar.move(oldDoctorId, oldDate, savedAppointment.getDoctor().getId(), savedAppointment.getAppointmentDate());
+        dailyAppointmentCounters.move(oldDoctorId, oldDate,
+                savedAppointment.getDoctor().getId(), savedAppointment.getAppointmentDate());
+        jsonResponseCache.evict(AppointmentDto.class, id);
+        appointmentOutboxRepository.save(AppointmentMapper.mapToOutboxEvent(savedAppointment, AppointmentEventType.MOVED));
+        return AppointmentMapper.mapToDto(savedAppointment);
     }
 
     @Transactional
     public AppointmentDto updateDate(int id, UpdateAppointmentDateCommand command) {
-        Appointment appointment = appointmentRepository.findById(id)
-                .orElseThrow(() -> new AppointmentWithIdNotFoundException(MessageFormat
-                        .format("Appointment with id {0} not found", id)));
-        validateDoctorAvailability(appointment.getDoctor(), command.getDateTime());
+        Appointment appointment = findLocked(id, 0);
+        validateDoctorAvailability(appointment.getDoctor().getId(), command.getDateTime());
         validateDateIsNotInThePast(appointment.getAppointmentDate());
 
+        LocalDateTime oldDate = appointment.getAppointmentDate();
         appointment.setAppointmentDate(command.getDateTime());
 
-        return AppointmentMapper.mapToDto(appointmentRepository.save(appointment));
+        Appointment savedAppointment = saveBooking(appointment);
+        slotCalendar.move(savedAppointment.getDoctor().getId(), oldDate,
+                savedAppointment.getDoctor().getId(), savedAppointment.getAppointmentDate());
+        dailyAppointmentCounters.move(savedAppointment.getDoctor().getId(), oldDate,
+                savedAppointment.getDoctor().getId(), savedAppointment.getAppointmentDate());
+        jsonResponseCache.evict(AppointmentDto.class, id);
+        appointmentOutboxRepository.save(AppointmentMapper.mapToOutboxEvent(savedAppointment, AppointmentEventType.MOVED));
+        return AppointmentMapper.mapToDto(savedAppointment);
     }
 
     @Transactional
@@ -126,6 +282,55 @@ public class AppointmentService {
                         .format("Appointment with id {0} not found", id)));
         validateDateIsNotInThePast(appointment.getAppointmentDate());
         appointmentRepository.deleteById(id);
+        slotCalendar.release(appointment.getDoctor().getId(), appointment.getAppointmentDate());
+        dailyAppointmentCounters.remove(appointment.getDoctor().getId(), appointment.getAppointmentDate());
+        jsonResponseCache.evict(AppointmentDto.class, id);
+        appointmentOutboxRepository.save(AppointmentMapper.mapToOutboxEvent(appointment, AppointmentEventType.DELETED));
+    }
+
+    private BatchAppointmentResultDto rejected(int index, String error) {
+        return BatchAppointmentResultDto.builder()
+                .index(index)
+                .status(BatchItemStatus.REJECTED)
+                .error(error)
+                .build();
+    }
+
+    // Locks the appointment's current doctor before loading it, then re-checks the doctor: a move committed between
+    // the two reads holds that doctor's stripe until it completes, so a mismatch means the appointment changed under us.
+    private Appointment findLocked(int id, int newDoctorId) {
+        int doctorId = appointmentRepository.findDoctorIdById(id)
+                .orElseThrow(() -> new AppointmentWithIdNotFoundException(MessageFormat
+                        .format("Appointment with id {0} not found", id)));
+        bookingLocks.lockUntilCompletion(newDoctorId != 0 ? List.of(doctorId, newDoctorId) : List.of(doctorId));
+        Appointment appointment = appointmentRepository.findById(id)
+                .orElseThrow(() -> new AppointmentWithIdNotFoundException(MessageFormat
+                        .format("Appointment with id {0} not found", id)));
+        if (appointment.getDoctor().getId() != doctorId) {
+            throw new ObjectOptimisticLockingFailureException(Appointment.class, id);
+        }
+        return appointment;
+    }
+
+    // Flushes inside the booking lock so a slot taken by another instance surfaces as DoctorOccupiedException.
+    private Appointment saveBooking(Appointment appointment) {
+        try {
+            Appointment savedAppointment = appointmentRepository.save(appointment);
+            appointmentRepository.flush();
+            return savedAppointment;
+        } catch (DataIntegrityViolationException e) {
+            throw doubleBookingOr(e, MessageFormat
+                    .format("Doctor has an appointment scheduled for date {0}", appointment.getAppointmentDate()));
+        }
+    }
+
+    private RuntimeException doubleBookingOr(DataIntegrityViolationException e, String message) {
+        if (e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase().contains(Appointment.DOCTOR_DATE_CONSTRAINT)) {
+            return new DoctorOccupiedException(message);
+        }
+        return e;
     }
 
     private void validateDateIsNotInThePast(LocalDateTime dateTime) {
@@ -135,12 +340,9 @@ public class AppointmentService {
         }
     }
 
-    private void validateDoctorAvailability(Doctor doctor, LocalDateTime appointmentDate) {
-        Set<Appointment> appointmentSet = doctor.getAppointments();
-        if (appointmentSet != null && appointmentSet
-                .stream()
-                .map(Appointment::getAppointmentDate)
-                .anyMatch(i -> i.equals(appointmentDate))) {
+    void validateDoctorAvailability(int doctorId, LocalDateTime appointmentDate) {
+        if (ReadWriteRoutingDataSource.onPrimary(
+                () -> appointmentRepository.existsByDoctorIdAndAppointmentDate(doctorId, appointmentDate))) {
             throw new DoctorOccupiedException(MessageFormat
                     .format("Doctor has an appointment scheduled for date {0}", appointmentDate));
         }
@@ -0,0 +1,39 @@
+package com.clinic.project1.service;
+
+
+import com.clinic.project1.model.dto.CacheRegionStatisticsDto;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public List<CacheRegionStatisticsDto> findAll() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> {
+                    CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+                    return regionStatistics == null ? null : CacheRegionStatisticsDto.builder()
+                            .region(region)
+                            .hitCount(regionStatistics.getHitCount())
+                            .missCount(regionStatistics.getMissCount())
+                            .putCount(regionStatistics.getPutCount())
+                            .elementCountInMemory(regionStatistics.getElementCountInMemory())
+                            .build();
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -1,48 +1,130 @@
 package com.clinic.project1.service;
 
 
+import com.clinic.project1.cache.ChangeStamps;
+import com.clinic.project1.cache.DoctorCache;
+import com.clinic.project1.cache.JsonResponseCache;
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.KeysetPagination;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.config.MetricsConfiguration;
+import com.clinic.project1.datasource.ReadWriteRoutingDataSource;
 import com.clinic.project1.exception.DoctorWithIdNotFoundException;
 import com.clinic.project1.mapper.DoctorMapper;
+import com.clinic.project1.mapper.SpecializationMapper;
 import com.clinic.project1.model.Doctor;
 import com.clinic.project1.model.command.create.CreateDoctorCommand;
 import com.clinic.project1.model.command.update.FullUpdateDoctorCommand;
 import com.clinic.project1.model.command.update.UpdateDoctorSpecializationCommand;
 import com.clinic.project1.model.dto.DoctorDto;
+import com.clinic.project1.model.dto.DoctorMatchDto;
+import com.clinic.project1.model.dto.NameMatchDto;
+import com.clinic.project1.model.projection.DoctorLoadView;
+import com.clinic.project1.model.projection.DoctorView;
 import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.schedule.SpecializationIndex;
+import com.clinic.project1.search.DoctorNameIndex;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.text.MessageFormat;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class DoctorService {
 
 
     private final DoctorRepository doctorRepository;
+    private final SpecializationIndex specializationIndex;
+    private final DoctorCache doctorCache;
+    private final ChangeStamps changeStamps;
+    private final JsonResponseCache jsonResponseCache;
+    private final DoctorNameIndex doctorNameIndex;
 
-    public List<DoctorDto> findAll() {
-        return doctorRepository.findAll()
-                .stream()
-                .map(DoctorMapper::mapToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Slice<DoctorDto> findAll(int after, int limit) {
+        Slice<DoctorView> doctors = doctorRepository.findViewsByIdGreaterThan(after, KeysetPagination.firstPageOf(limit));
+        if (!doctors.hasContent()) {
+            return doctors.map(doctor -> DoctorMapper.mapToDto(doctor, Set.of()));
+        }
+
+        Map<Integer, Set<Specialization>> specializations = new HashMap<>();
+        doctorRepository.findSpecializationsByDoctorIdIn(doctors.map(DoctorView::getId).getContent())
+                .forEach(row -> specializations
+                        .computeIfAbsent(row.getDoctorId(), id -> EnumSet.noneOf(Specialization.class))
+                        .add(row.getSpecialization()));
+
+        return doctors.map(doctor -> DoctorMapper.mapToDto(doctor,
+                specializations.getOrDefault(doctor.getId(), Set.of())));
+    }
+
+    // Candidates come from the specialization index; only their rows are read, to count current load.
+    @Transactional(readOnly = true)
+    public List<DoctorMatchDto> findMatching(Disease disease, int limit) {
+        List<Integer> doctorIds = specializationIndex
+                .doctorsWith(SpecializationMapper.getRequiredSpecializationForDisease(disease))
+                .boxed()
+                .toList();
+        if (doctorIds.isEmpty()) {
+            return List.of();
+        }
+        return doctorRepository.findLoadsByIdIn(doctorIds, LocalDateTime.now()).stream()
+                .sorted(Comparator.comparingLong((DoctorLoadView doctor) ->
+                                doctor.getPatientCount() + doctor.getUpcomingAppointmentCount())
+                        .thenComparingInt(DoctorLoadView::getId))
+                .limit(Math.max(1, Math.min(limit, KeysetPagination.MAX_LIMIT)))
+                .map(DoctorMapper::mapToMatchDto)
+                .toList();
     }
 
     public DoctorDto save(CreateDoctorCommand command) {
         Doctor doctor = DoctorMapper.mapFromCommand(command);
         Doctor savedDoctor = doctorRepository.save(doctor);
+        specializationIndex.put(savedDoctor.getId(), savedDoctor.getSpecializations());
+        doctorNameIndex.put(savedDoctor.getId(), savedDoctor.getFirstName(), savedDoctor.getLastName());
         return DoctorMapper.mapToDto(savedDoctor);
     }
 
+    public List<NameMatchDto> search(String query, int limit) {
+        return doctorNameIndex.search(query, limit);
+    }
+
+    // Doctor and its specializations are READ_WRITE in the shared L2 cache; a load from a lagging replica would put a
+    // stale doctor there for every later reader, so cached entity loads go to the primary.
+    @Transactional(readOnly = true)
     public DoctorDto findById(int id) {
-        return doctorRepository.findById(id)
+        return ReadWriteRoutingDataSource.onPrimary(() -> doctorRepository.findById(id))
                 .map(DoctorMapper::mapToDto)
                 .orElseThrow(() -> new DoctorWithIdNotFoundException(MessageFormat
                         .format("Doctor with id {0} not found", id)));
     }
 
+    // Scalar version lookup, so a conditional GET can be answered without loading the entity.
+    @Transactional(readOnly = true)
+    public long findVersion(int id) {
+        return doctorRepository.findVersionById(id)
+                .orElseThrow(() -> new DoctorWithIdNotFoundException(MessageFormat
+                        .format("Doctor with id {0} not found", id)));
+    }
+
+    public Optional<String> changeStamp() {
+        return changeStamps.stampOf(Doctor.class);
+    }
+
+    @Transactional
     public DoctorDto update(int id, FullUpdateDoctorCommand command) {
         Doctor doctor = doctorRepository.findById(id)
                 .orElseThrow(() -> new DoctorWithIdNotFoundException(MessageFormat
@@ -54,22 +136,36 @@ public class DoctorService {
             doctor.setLastName(command.getLastName());
         }
         if (command.getSpecializations() != null) {
-            doctor.setSpecializations(command.getSpecializations());
+            doctor.setSpecializations(new HashSet<>(command.getSpecializations()));
         }
 
-        return DoctorMapper.mapToDto(doctorRepository.save(doctor));
+        Doctor savedDoctor = doctorRepository.save(doctor);
+        specializationIndex.put(savedDoctor.getId(), savedDoctor.getSpecializations());
+        doctorNameIndex.put(savedDoctor.getId(), savedDoctor.getFirstName(), savedDoctor.getLastName());
+        doctorCache.evict(savedDoctor.getId());
+        jsonResponseCache.evict(DoctorDto.class, savedDoctor.getId());
+        return DoctorMapper.mapToDto(savedDoctor);
     }
 
 
+    @Transactional
     public DoctorDto updateSpecialization(int id, UpdateDoctorSpecializationCommand command) {
         Doctor doctor = doctorRepository.findById(id)
                 .orElseThrow(() -> new DoctorWithIdNotFoundException(MessageFormat
                         .format("Doctor with id {0} not found", id)));
-        doctor.setSpecializations(command.getSpecializations());
-        return DoctorMapper.mapToDto(doctorRepository.save(doctor));
+        doctor.setSpecializations(new HashSet<>(command.getSpecializations()));
+        Doctor savedDoctor = doctorRepository.save(doctor);
+        specializationIndex.put(savedDoctor.getId(), savedDoctor.getSpecializations());
+        doctorCache.evict(savedDoctor.getId());
+        jsonResponseCache.evict(DoctorDto.class, savedDoctor.getId());
+        return DoctorMapper.mapToDto(savedDoctor);
     }
 
     public void deleteById(int id) {
         doctorRepository.deleteById(id);
+        specializationIndex.remove(id);
+        doctorNameIndex.remove(id);
+        doctorCache.evict(id);
+        jsonResponseCache.evict(DoctorDto.class, id);
     }
 }
@@ -0,0 +1,80 @@
+package com.clinic.project1.service;
+
+
+import com.clinic.project1.mapper.DoctorMapper;
+import com.clinic.project1.mapper.PatientMapper;
+import com.clinic.project1.model.Doctor;
+import com.clinic.project1.model.Patient;
+import com.clinic.project1.model.dto.AppointmentDto;
+import com.clinic.project1.repository.AppointmentRepository;
+import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.repository.PatientRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    private static final int CLEAR_INTERVAL = 500;
+
+    private final AppointmentRepository appointmentRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportAppointments(OutputStream outputStream) throws IOException {
+        try (Stream<AppointmentDto> appointments = appointmentRepository.streamAllDto()) {
+            writeNdjson(appointments, Function.identity(), outputStream);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportPatients(OutputStream outputStream) throws IOException {
+        try (Stream<Patient> patients = patientRepository.streamAll()) {
+            writeNdjson(patients, PatientMapper::mapToDto, outputStream);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportDoctors(OutputStream outputStream) throws IOException {
+        // The export is read on the replica; what it loads must not go into the shared L2 doctor cache.
+        entityManager.setProperty("jakarta.persistence.cache.storeMode", CacheStoreMode.BYPASS);
+        try (Stream<Doctor> doctors = doctorRepository.streamAll()) {
+            writeNdjson(doctors, DoctorMapper::mapToDto, outputStream);
+        }
+    }
+
+    private <T> void writeNdjson(Stream<T> rows, Function<T, ?> mapper, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(null);
+
+            int written = 0;
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                objectMapper.writeValue(generator, mapper.apply(iterator.next()));
+                generator.writeRaw('\n');
+                if (++written % CLEAR_INTERVAL == 0) {
+                    generator.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+}
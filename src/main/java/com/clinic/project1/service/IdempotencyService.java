@@ -0,0 +1,150 @@
+package com.clinic.project1.service;
+
+
+import com.clinic.project1.datasource.ReadWriteRoutingDataSource;
+import com.clinic.project1.exception.IdempotencyKeyReusedException;
+import com.clinic.project1.model.IdempotencyRecord;
+import com.clinic.project1.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a create request at most once per Idempotency-Key and scope, returning the stored JSON response on replays.
+ * Recent keys are held in memory as futures, so a concurrent duplicate waits for the first request's result; older
+ * keys and keys handled by another instance are found in the idempotency_key table until their TTL runs out.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<String, CompletableFuture<StoredResponse>> recentKeys;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${clinic.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${clinic.idempotency.cache-size:10000}") int cacheSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public byte[] execute(String scope, String key, Object request, Supplier<?> action) {
+        if (key == null || key.isBlank()) {
+            return toJson(action.get());
+        }
+        String id = scope + ":" + sha256(key.getBytes(StandardCharsets.UTF_8));
+        String requestHash = sha256(toJson(request));
+        CompletableFuture<StoredResponse> first = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = recentKeys.asMap().putIfAbsent(id, first);
+        if (existing != null) {
+            return replay(key, await(existing), requestHash);
+        }
+        try {
+            StoredResponse response = findStored(id).orElseGet(() -> executeOnce(id, requestHash, action));
+            first.complete(response);
+            return replay(key, response, requestHash);
+        } catch (RuntimeException e) {
+            recentKeys.asMap().remove(id, first);
+            first.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${clinic.idempotency.purge-interval:PT1H}",
+            fixedDelayString = "${clinic.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        transactionTemplate.executeWithoutResult(status ->
+                idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+    }
+
+    private StoredResponse executeOnce(String id, String requestHash, Supplier<?> action) {
+        try {
+            return transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                idempotencyRecordRepository.deleteExpiredById(id, now);
+                byte[] response = toJson(action.get());
+                idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                        .id(id)
+                        .requestHash(requestHash)
+                        .response(response)
+                        .expiresAt(now.plus(ttl))
+                        .build());
+                return new StoredResponse(requestHash, response);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance committed the key first; this transaction, the created row included, rolled back.
+            return findStored(id).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<StoredResponse> findStored(String id) {
+        return ReadWriteRoutingDataSource.onPrimary(() -> idempotencyRecordRepository.findById(id))
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(record -> new StoredResponse(record.getRequestHash(), record.getResponse()));
+    }
+
+    private static byte[] replay(String key, StoredResponse response, String requestHash) {
+        if (!response.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(MessageFormat
+                    .format("Idempotency key {0} was already used for a different request", key));
+        }
+        return response.body();
+    }
+
+    private static StoredResponse await(CompletableFuture<StoredResponse> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record StoredResponse(String requestHash, byte[] body) {
+    }
+}
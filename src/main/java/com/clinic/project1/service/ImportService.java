@@ -0,0 +1,378 @@
+package com.clinic.project1.service;
+
+
+import com.clinic.project1.cache.ChangeStamps;
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.mapper.SpecializationMapper;
+import com.clinic.project1.model.Doctor;
+import com.clinic.project1.model.Patient;
+import com.clinic.project1.model.command.create.CreateDoctorCommand;
+import com.clinic.project1.model.command.create.CreatePatientCommand;
+import com.clinic.project1.model.dto.ImportReportDto;
+import com.clinic.project1.model.dto.NameMatchDto;
+import com.clinic.project1.model.dto.RejectedRowDto;
+import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.schedule.SpecializationIndex;
+import com.clinic.project1.search.DoctorNameIndex;
+import com.clinic.project1.search.PatientNameIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk CSV import of patients and doctors. The body is read line by line and only one chunk of parsed rows is held at
+ * a time; each chunk is validated in memory, its referenced doctors resolved with one query, and the accepted rows
+ * inserted with JDBC batches in a transaction of their own. Rows are validated as the corresponding create commands. A
+ * chunk whose transaction fails is reported as rejected line by line, and the import goes on with the next one.
+ */
+@Service
+public class ImportService {
+
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    static final int MAX_REPORTED_REJECTIONS = 1000;
+    // allocationSize of patient_seq and doctor_seq.
+    private static final int ID_BLOCK = 50;
+
+    private static final String INSERT_PATIENT = "insert into patient "
+            + "(id, version, first_name, last_name, disease, doctor_id) values (?, 0, ?, ?, ?, ?)";
+    private static final String INSERT_DOCTOR = "insert into doctor (id, version, first_name, last_name) "
+            + "values (?, 0, ?, ?)";
+    private static final String INSERT_DOCTOR_SPECIALIZATION = "insert into doctor_specialization "
+            + "(doctor_id, specialization) values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DoctorRepository doctorRepository;
+    private final ChangeStamps changeStamps;
+    private final PatientNameIndex patientNameIndex;
+    private final DoctorNameIndex doctorNameIndex;
+    private final SpecializationIndex specializationIndex;
+    private final Validator validator;
+    private final int batchSize;
+
+    public ImportService(JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         DoctorRepository doctorRepository,
+                         ChangeStamps changeStamps,
+                         PatientNameIndex patientNameIndex,
+                         DoctorNameIndex doctorNameIndex,
+                         SpecializationIndex specializationIndex,
+                         Validator validator,
+                         @Value("${clinic.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.doctorRepository = doctorRepository;
+        this.changeStamps = changeStamps;
+        this.patientNameIndex = patientNameIndex;
+        this.doctorNameIndex = doctorNameIndex;
+        this.specializationIndex = specializationIndex;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    // Columns: firstName,lastName,disease,doctorId; the first line is a header.
+    public ImportReportDto importPatients(InputStream csv) {
+        Map<Integer, Set<Specialization>> doctors = new HashMap<>();
+        return importRows(csv, 4, ImportService::parsePatient,
+                (rows, report) -> savePatients(rows, doctors, report));
+    }
+
+    // Columns: firstName,lastName,specializations, the specializations separated by ';'; the first line is a header.
+    public ImportReportDto importDoctors(InputStream csv) {
+        return importRows(csv, 3, ImportService::parseDoctor, this::saveDoctors);
+    }
+
+    private <T extends ImportRow> ImportReportDto importRows(InputStream csv, int columns, RowParser<T> parser,
+                                                             BiConsumer<List<T>, ImportReport> saver) {
+        ImportReport report = new ImportReport();
+        List<T> chunk = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            long line = 1;
+            reader.readLine();
+            for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                String[] fields = text.split(",", -1);
+                if (fields.length != columns) {
+                    report.reject(line, MessageFormat.format("Expected {0} columns, found {1}", columns, fields.length));
+                    continue;
+                }
+                T row;
+                try {
+                    row = parser.parse(line, fields);
+                } catch (IllegalArgumentException e) {
+                    report.reject(line, e.getMessage());
+                    continue;
+                }
+                Set<ConstraintViolation<Object>> violations = validator.validate(row.command());
+                if (!violations.isEmpty()) {
+                    report.reject(line, violations.stream()
+                            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining(", ")));
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == batchSize) {
+                    saveChunk(chunk, saver, report);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(chunk, saver, report);
+        }
+        return report.toDto();
+    }
+
+    // The chunk's own report is merged only once its transaction has committed, so a rolled back chunk counts each of
+    // its rows once, as rejected.
+    private <T extends ImportRow> void saveChunk(List<T> chunk, BiConsumer<List<T>, ImportReport> saver,
+                                                 ImportReport report) {
+        ImportReport chunkReport = new ImportReport();
+        try {
+            transactionTemplate.executeWithoutResult(status -> saver.accept(chunk, chunkReport));
+        } catch (DataAccessException | TransactionException e) {
+            String error = MessageFormat.format("Chunk not imported: {0}", e.getMostSpecificCause().getMessage());
+            chunk.forEach(row -> report.reject(row.line(), error));
+            return;
+        }
+        report.merge(chunkReport);
+    }
+
+    private void savePatients(List<PatientRow> rows, Map<Integer, Set<Specialization>> doctors, ImportReport report) {
+        resolveDoctors(rows, doctors);
+        List<PatientRow> accepted = new ArrayList<>(rows.size());
+        for (PatientRow row : rows) {
+            CreatePatientCommand command = row.command();
+            Set<Specialization> specializations = doctors.get(command.getDoctorId());
+            if (specializations == null) {
+                report.reject(row.line(), MessageFormat.format("Doctor with id {0} not found", command.getDoctorId()));
+            } else if (!specializations.contains(
+                    SpecializationMapper.getRequiredSpecializationForDisease(command.getDisease()))) {
+                report.reject(row.line(), MessageFormat.format(
+                        "Doctor with id {0} does not have the required specialization for disease {1}",
+                        command.getDoctorId(), command.getDisease()));
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        int[] ids = reserveIds("patient_seq", accepted.size());
+        jdbcTemplate.batchUpdate(INSERT_PATIENT, new ChunkSetter(accepted.size()) {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                CreatePatientCommand command = accepted.get(i).command();
+                statement.setInt(1, ids[i]);
+                statement.setString(2, command.getFirstName());
+                statement.setString(3, command.getLastName());
+                statement.setString(4, command.getDisease().name());
+                statement.setInt(5, command.getDoctorId());
+            }
+        });
+        List<NameMatchDto> names = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            CreatePatientCommand command = accepted.get(i).command();
+            names.add(new NameMatchDto(ids[i], command.getFirstName(), command.getLastName()));
+        }
+        patientNameIndex.putAll(names);
+        // Plain JDBC bypasses the entity listeners, so the list stamp is moved by hand.
+        changeStamps.bump(Patient.class);
+        report.imported += accepted.size();
+    }
+
+    private void saveDoctors(List<DoctorRow> rows, ImportReport report) {
+        int[] ids = reserveIds("doctor_seq", rows.size());
+        jdbcTemplate.batchUpdate(INSERT_DOCTOR, new ChunkSetter(rows.size()) {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                statement.setInt(1, ids[i]);
+                statement.setString(2, rows.get(i).command().getFirstName());
+                statement.setString(3, rows.get(i).command().getLastName());
+            }
+        });
+        List<Object[]> specializations = new ArrayList<>(rows.size());
+        for (int i = 0; i < ids.length; i++) {
+            for (Specialization specialization : rows.get(i).command().getSpecializationSet()) {
+                specializations.add(new Object[]{ids[i], specialization.name()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_DOCTOR_SPECIALIZATION, specializations);
+        List<NameMatchDto> names = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            CreateDoctorCommand command = rows.get(i).command();
+            specializationIndex.put(ids[i], command.getSpecializationSet());
+            names.add(new NameMatchDto(ids[i], command.getFirstName(), command.getLastName()));
+        }
+        doctorNameIndex.putAll(names);
+        changeStamps.bump(Doctor.class);
+        report.imported += rows.size();
+    }
+
+    // Only doctors not seen in an earlier chunk are read, with one query for the ids and one for the specializations.
+    private void resolveDoctors(List<PatientRow> rows, Map<Integer, Set<Specialization>> doctors) {
+        Set<Integer> unresolved = new HashSet<>();
+        rows.forEach(row -> {
+            if (!doctors.containsKey(row.command().getDoctorId())) {
+                unresolved.add(row.command().getDoctorId());
+            }
+        });
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        Set<Integer> existing = doctorRepository.findExistingIds(unresolved);
+        if (existing.isEmpty()) {
+            return;
+        }
+        existing.forEach(id -> doctors.put(id, EnumSet.noneOf(Specialization.class)));
+        doctorRepository.findSpecializationsByDoctorIdIn(existing)
+                .forEach(row -> doctors.get(row.getDoctorId()).add(row.getSpecialization()));
+    }
+
+    // Hibernate's pooled optimizer reads a sequence value v as the block v-49..v, so ids are reserved the same way.
+    private int[] reserveIds(String sequence, int count) {
+        int[] ids = new int[count];
+        int reserved = 0;
+        while (reserved < count) {
+            int hi = jdbcTemplate.queryForObject("select next value for " + sequence, Integer.class);
+            for (int id = Math.max(1, hi - ID_BLOCK + 1); id <= hi && reserved < count; id++) {
+                ids[reserved++] = id;
+            }
+        }
+        return ids;
+    }
+
+    // Only conversions are checked here; the constraints of the create commands are checked by the validator.
+    private static PatientRow parsePatient(long line, String[] fields) {
+        int doctorId;
+        try {
+            doctorId = Integer.parseInt(fields[3].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(MessageFormat.format("Invalid doctorId {0}", fields[3].trim()));
+        }
+        return new PatientRow(line, CreatePatientCommand.builder()
+                .firstName(fields[0].trim())
+                .lastName(fields[1].trim())
+                .disease(constant(Disease.class, fields[2], "disease"))
+                .doctorId(doctorId)
+                .build());
+    }
+
+    private static DoctorRow parseDoctor(long line, String[] fields) {
+        Set<Specialization> specializations = EnumSet.noneOf(Specialization.class);
+        for (String specialization : fields[2].split(";")) {
+            if (!specialization.isBlank()) {
+                specializations.add(constant(Specialization.class, specialization, "specialization"));
+            }
+        }
+        return new DoctorRow(line, CreateDoctorCommand.builder()
+                .firstName(fields[0].trim())
+                .lastName(fields[1].trim())
+                .specializationSet(specializations)
+                .build());
+    }
+
+    private static <E extends Enum<E>> E constant(Class<E> type, String field, String column) {
+        String value = field.trim();
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(MessageFormat.format("Unknown {0} {1}", column, value));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowParser<T> {
+        T parse(long line, String[] fields);
+    }
+
+    private interface ImportRow {
+        long line();
+
+        Object command();
+    }
+
+    private record PatientRow(long line, CreatePatientCommand command) implements ImportRow {
+    }
+
+    private record DoctorRow(long line, CreateDoctorCommand command) implements ImportRow {
+    }
+
+    private abstract static class ChunkSetter implements BatchPreparedStatementSetter {
+
+        private final int size;
+
+        ChunkSetter(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public int getBatchSize() {
+            return size;
+        }
+    }
+
+    // Keeps the first MAX_REPORTED_REJECTIONS rejected rows, so a wholly malformed file cannot grow the report unbounded.
+    private static class ImportReport {
+
+        private final List<RejectedRowDto> rejectedRows = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        void reject(long line, String error) {
+            rejected++;
+            if (rejectedRows.size() < MAX_REPORTED_REJECTIONS) {
+                rejectedRows.add(new RejectedRowDto(line, error));
+            }
+        }
+
+        void merge(ImportReport other) {
+            imported += other.imported;
+            rejected += other.rejected;
+            other.rejectedRows.stream()
+                    .limit(MAX_REPORTED_REJECTIONS - rejectedRows.size())
+                    .forEach(rejectedRows::add);
+        }
+
+        ImportReportDto toDto() {
+            return ImportReportDto.builder()
+                    .imported(imported)
+                    .rejected(rejected)
+                    .rejectedRows(rejectedRows)
+                    .build();
+        }
+    }
+}
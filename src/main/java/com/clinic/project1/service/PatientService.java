@@ -1,8 +1,12 @@
 package com.clinic.project1.service;
 
 
+import com.clinic.project1.cache.ChangeStamps;
+import com.clinic.project1.cache.JsonResponseCache;
 import com.clinic.project1.common.Disease;
 import com.clinic.project1.common.Specialization;
+import com.clinic.project1.common.KeysetPagination;
+import com.clinic.project1.config.MetricsConfiguration;
 import com.clinic.project1.exception.DoctorWithIdNotFoundException;
 import com.clinic.project1.exception.InvalidSpecializationException;
 import com.clinic.project1.exception.PatientWithIdNotFoundException;
@@ -13,29 +17,35 @@ import com.clinic.project1.model.Patient;
 import com.clinic.project1.model.command.create.CreatePatientCommand;
 import com.clinic.project1.model.command.update.FullPatientUpdateCommand;
 import com.clinic.project1.model.command.update.UpdatePatientDiseaseCommand;
+import com.clinic.project1.model.dto.NameMatchDto;
 import com.clinic.project1.model.dto.PatientDto;
 import com.clinic.project1.repository.DoctorRepository;
 import com.clinic.project1.repository.PatientRepository;
-import jakarta.transaction.Transactional;
+import com.clinic.project1.search.PatientNameIndex;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.text.MessageFormat;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class PatientService {
 
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
+    private final ChangeStamps changeStamps;
+    private final JsonResponseCache jsonResponseCache;
+    private final PatientNameIndex patientNameIndex;
 
-    public List<PatientDto> findAll() {
-        return patientRepository.findAll()
-                .stream()
-                .map(PatientMapper::mapToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Slice<PatientDto> findAll(int after, int limit) {
+        return patientRepository.findDtoByIdGreaterThan(after, KeysetPagination.firstPageOf(limit));
     }
 
     @Transactional
@@ -48,17 +58,34 @@ public class PatientService {
 
         Patient toSave = PatientMapper.mapFromCommand(command, doctor);
         Patient savedPatient = patientRepository.save(toSave);
+        patientNameIndex.put(savedPatient.getId(), savedPatient.getFirstName(), savedPatient.getLastName());
 
         return PatientMapper.mapToDto(savedPatient);
     }
 
+    public List<NameMatchDto> search(String query, int limit) {
+        return patientNameIndex.search(query, limit);
+    }
+
+    @Transactional(readOnly = true)
     public PatientDto findById(int id) {
-        return patientRepository.findById(id)
-                .map(PatientMapper::mapToDto)
+        return patientRepository.findDtoById(id)
+                .orElseThrow(() -> new PatientWithIdNotFoundException(MessageFormat
+                        .format("Patient with id {0} not found", id)));
+    }
+
+    @Transactional(readOnly = true)
+    public long findVersion(int id) {
+        return patientRepository.findVersionById(id)
                 .orElseThrow(() -> new PatientWithIdNotFoundException(MessageFormat
                         .format("Patient with id {0} not found", id)));
     }
 
+    public Optional<String> changeStamp() {
+        return changeStamps.stampOf(Patient.class);
+    }
+
+    @Transactional
     public PatientDto update(int id, FullPatientUpdateCommand command) {
         Patient patient = patientRepository.findById(id)
                 .orElseThrow(() -> new PatientWithIdNotFoundException(MessageFormat
@@ -100,9 +127,13 @@ public class PatientService {
             }
         }
 
-        return PatientMapper.mapToDto(patientRepository.save(patient));
+        Patient savedPatient = patientRepository.save(patient);
+        patientNameIndex.put(savedPatient.getId(), savedPatient.getFirstName(), savedPatient.getLastName());
+        jsonResponseCache.evict(PatientDto.class, savedPatient.getId());
+        return PatientMapper.mapToDto(savedPatient);
     }
 
+    @Transactional
     public PatientDto updateDisease(int id, UpdatePatientDiseaseCommand command) {
         Patient patient = patientRepository.findById(id)
                 .orElseThrow(() -> new PatientWithIdNotFoundException(MessageFormat
@@ -117,11 +148,15 @@ public class PatientService {
         }
 
         patient.setDisease(command.getDisease());
-        return PatientMapper.mapToDto(patientRepository.save(patient));
+        Patient savedPatient = patientRepository.save(patient);
+        jsonResponseCache.evict(PatientDto.class, savedPatient.getId());
+        return PatientMapper.mapToDto(savedPatient);
     }
 
     public void deleteById(int id) {
         patientRepository.deleteById(id);
+        patientNameIndex.remove(id);
+        jsonResponseCache.evict(PatientDto.class, id);
     }
 
     private void validateDoctorSpecialization(Doctor doctor, Disease disease) {
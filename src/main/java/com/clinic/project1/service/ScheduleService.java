@@ -0,0 +1,51 @@
+package com.clinic.project1.service;
+
+
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.exception.DoctorWithIdNotFoundException;
+import com.clinic.project1.mapper.SpecializationMapper;
+import com.clinic.project1.model.dto.FreeSlotDto;
+import com.clinic.project1.schedule.SlotCalendar;
+import com.clinic.project1.schedule.SpecializationIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.text.MessageFormat;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class ScheduleService {
+
+    private static final int MAX_FREE_SLOTS = 100;
+
+    private final SlotCalendar slotCalendar;
+    private final SpecializationIndex specializationIndex;
+
+    public List<FreeSlotDto> findFreeSlots(int doctorId, LocalDateTime from, int count) {
+        if (!specializationIndex.contains(doctorId)) {
+            throw new DoctorWithIdNotFoundException(MessageFormat.format("Doctor with id {0} not found", doctorId));
+        }
+        return slotCalendar.findFreeSlots(doctorId, notInThePast(from), Math.max(0, Math.min(count, MAX_FREE_SLOTS)))
+                .stream()
+                .map(start -> new FreeSlotDto(doctorId, start))
+                .toList();
+    }
+
+    public Optional<FreeSlotDto> findEarliestFreeSlot(Disease disease, LocalDateTime from) {
+        LocalDateTime start = notInThePast(from);
+        return specializationIndex.doctorsWith(SpecializationMapper.getRequiredSpecializationForDisease(disease))
+                .mapToObj(doctorId -> slotCalendar.findEarliestFreeSlot(doctorId, start)
+                        .map(slot -> new FreeSlotDto(doctorId, slot)))
+                .flatMap(Optional::stream)
+                .min(Comparator.comparing(FreeSlotDto::getStart).thenComparing(FreeSlotDto::getDoctorId));
+    }
+
+    private LocalDateTime notInThePast(LocalDateTime from) {
+        LocalDateTime now = LocalDateTime.now();
+        return from == null || from.isBefore(now) ? now : from;
+    }
+}
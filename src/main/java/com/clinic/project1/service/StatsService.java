@@ -0,0 +1,32 @@
+package com.clinic.project1.service;
+
+
+import com.clinic.project1.model.dto.DailyStatsDto;
+import com.clinic.project1.stats.DailyAppointmentCounters;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+public class StatsService {
+
+    private final DailyAppointmentCounters dailyAppointmentCounters;
+    private final int maxDays;
+
+    public StatsService(DailyAppointmentCounters dailyAppointmentCounters,
+                        @Value("${clinic.stats.max-days:31}") int maxDays) {
+        this.dailyAppointmentCounters = dailyAppointmentCounters;
+        this.maxDays = maxDays;
+    }
+
+    public List<DailyStatsDto> findDaily(LocalDate from, int days) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        return Stream.iterate(start, day -> day.plusDays(1))
+                .limit(Math.max(1, Math.min(days, maxDays)))
+                .map(dailyAppointmentCounters::countsOf)
+                .toList();
+    }
+}
@@ -0,0 +1,225 @@
+package com.clinic.project1.stats;
+
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.datasource.ReadWriteRoutingDataSource;
+import com.clinic.project1.model.dto.DailyStatsDto;
+import com.clinic.project1.repository.AppointmentRepository;
+import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.schedule.SpecializationIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Appointment counts per (doctor, day) and per (specialization, day), booked and archived alike. Write paths adjust
+ * them after commit; the periodic rebuild recounts from the tables and absorbs drift, e.g. after a doctor's
+ * specializations change.
+ * <p>
+ * The recount runs without a lock while readers and adjustments keep using the current counts; the result is swapped
+ * in under a short write lock. A doctor's day adjusted while the recount ran keeps its live count, since the recount
+ * may or may not have seen that commit. A writing transaction holds the read lock from just before its commit until
+ * its adjustment is applied, so every commit is either applied and marked before the swap or lands after it.
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyAppointmentCounters {
+
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final SpecializationIndex specializationIndex;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Map<LocalDate, DayCounts> days = new ConcurrentHashMap<>();
+    // Doctor days adjusted since the running rebuild started; null while no rebuild runs.
+    private volatile Set<DoctorDay> adjustedDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${clinic.stats.rebuild-interval:PT15M}",
+            fixedDelayString = "${clinic.stats.rebuild-interval:PT15M}")
+    public void rebuild() {
+        Set<DoctorDay> adjusted = ConcurrentHashMap.newKeySet();
+        lock.writeLock().lock();
+        try {
+            adjustedDuringRebuild = adjusted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            Map<Integer, Set<Specialization>> specializations = new HashMap<>();
+            Map<LocalDate, DayCounts> rebuilt = new ConcurrentHashMap<>();
+            ReadWriteRoutingDataSource.onPrimary(() -> {
+                doctorRepository.findAllSpecializations().forEach(row -> specializations
+                        .computeIfAbsent(row.getDoctorId(), id -> EnumSet.noneOf(Specialization.class))
+                        .add(row.getSpecialization()));
+                appointmentRepository.countBookedAndArchivedByDoctorAndDay()
+                        .forEach(row -> rebuilt.computeIfAbsent(row.getDay(), day -> new DayCounts()).add(
+                                row.getDoctorId(), specializations.getOrDefault(row.getDoctorId(), Set.of()),
+                                row.getAppointmentCount()));
+            });
+            lock.writeLock().lock();
+            try {
+                adjusted.forEach(doctorDay -> {
+                    DayCounts live = days.get(doctorDay.day());
+                    DayCounts counted = rebuilt.computeIfAbsent(doctorDay.day(), day -> new DayCounts());
+                    long delta = (live == null ? 0 : live.countOf(doctorDay.doctorId()))
+                            - counted.countOf(doctorDay.doctorId());
+                    counted.add(doctorDay.doctorId(),
+                            specializations.getOrDefault(doctorDay.doctorId(), Set.of()), delta);
+                });
+                days = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            adjustedDuringRebuild = null;
+        }
+    }
+
+    public void record(int doctorId, LocalDateTime appointmentDate) {
+        afterCommit(new Adjustment(doctorId, appointmentDate.toLocalDate(), 1));
+    }
+
+    public void remove(int doctorId, LocalDateTime appointmentDate) {
+        afterCommit(new Adjustment(doctorId, appointmentDate.toLocalDate(), -1));
+    }
+
+    public void move(int oldDoctorId, LocalDateTime oldDate, int newDoctorId, LocalDateTime newDate) {
+        afterCommit(new Adjustment(oldDoctorId, oldDate.toLocalDate(), -1),
+                new Adjustment(newDoctorId, newDate.toLocalDate(), 1));
+    }
+
+    public DailyStatsDto countsOf(LocalDate day) {
+        DayCounts counts = days.get(day);
+        return counts == null ? DayCounts.empty(day) : counts.snapshot(day);
+    }
+
+    // Like AfterCommit.run, but keeps a rebuild from swapping in its recount between the commit and its adjustment.
+    private void afterCommit(Adjustment... adjustments) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(adjustments);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                lock.readLock().lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                apply(adjustments);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (locked) {
+                    locked = false;
+                    lock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private void apply(Adjustment... adjustments) {
+        lock.readLock().lock();
+        try {
+            Set<DoctorDay> adjusted = adjustedDuringRebuild;
+            for (Adjustment adjustment : adjustments) {
+                if (adjusted != null) {
+                    adjusted.add(new DoctorDay(adjustment.doctorId(), adjustment.day()));
+                }
+                days.computeIfAbsent(adjustment.day(), day -> new DayCounts()).add(adjustment.doctorId(),
+                        specializationIndex.specializationsOf(adjustment.doctorId()), adjustment.delta());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Adjustment(int doctorId, LocalDate day, long delta) {
+    }
+
+    private record DoctorDay(int doctorId, LocalDate day) {
+    }
+
+    // Adjusted from the after-commit hooks of concurrent bookings, hence a ReentrantLock as in SlotCalendar.
+    private static class DayCounts {
+
+        private final Lock lock = new ReentrantLock();
+        private final Map<Integer, Long> doctors = new HashMap<>();
+        private final Map<Specialization, Long> specializations = new EnumMap<>(Specialization.class);
+        private long total;
+
+        void add(int doctorId, Set<Specialization> doctorSpecializations, long delta) {
+            lock.lock();
+            try {
+                total = Math.max(0, total + delta);
+                merge(doctors, doctorId, delta);
+                doctorSpecializations.forEach(specialization -> merge(specializations, specialization, delta));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long countOf(int doctorId) {
+            lock.lock();
+            try {
+                return doctors.getOrDefault(doctorId, 0L);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        DailyStatsDto snapshot(LocalDate day) {
+            lock.lock();
+            try {
+                return DailyStatsDto.builder()
+                        .day(day)
+                        .total(total)
+                        .doctors(Map.copyOf(doctors))
+                        .specializations(specializations.isEmpty()
+                                ? Map.of() : new EnumMap<>(specializations))
+                        .build();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        static DailyStatsDto empty(LocalDate day) {
+            return DailyStatsDto.builder()
+                    .day(day)
+                    .doctors(Map.of())
+                    .specializations(Map.of())
+                    .build();
+        }
+
+        private static <K> void merge(Map<K, Long> counts, K key, long delta) {
+            long count = counts.getOrDefault(key, 0L) + delta;
+            if (count > 0) {
+                counts.put(key, count);
+            } else {
+                counts.remove(key);
+            }
+        }
+    }
+}
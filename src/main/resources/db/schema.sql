@@ -0,0 +1,81 @@
+-- Schema applied by the fast-start profile instead of ddl-auto=update. FastStartSchemaTest validates its tables,
+-- columns and types against the entity mappings on every build, and checks that the unique constraints and indexes
+-- the entities name exist. Unnamed check constraints are not compared; keep them in step with the enums by hand.
+
+create sequence if not exists appointment_seq start with 1 increment by 50;
+create sequence if not exists appointment_outbox_seq start with 1 increment by 50;
+create sequence if not exists doctor_seq start with 1 increment by 50;
+create sequence if not exists patient_seq start with 1 increment by 50;
+
+create table if not exists doctor (
+    id integer not null,
+    version bigint not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    primary key (id)
+);
+
+create table if not exists doctor_specialization (
+    doctor_id integer not null,
+    specialization varchar(255) check (specialization in ('FAMILY_MEDICINE','PULMONOLOGY','PEDIATRICS')),
+    constraint fk_doctor_specialization_doctor foreign key (doctor_id) references doctor
+);
+
+create table if not exists patient (
+    id integer not null,
+    version bigint not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    disease varchar(255) check (disease in ('FLU','COVID_19','TONSILLITIS','BRONCHITIS','PNEUMONIA','CHICKENPOX',
+        'RUBELLA','MUMPS','MEASLES','SCARLET_FEVER')),
+    doctor_id integer,
+    primary key (id),
+    constraint fk_patient_doctor foreign key (doctor_id) references doctor
+);
+
+create table if not exists appointment (
+    id integer not null,
+    version bigint not null,
+    appointment_date timestamp(6),
+    doctor_id integer,
+    patient_id integer,
+    primary key (id),
+    constraint uk_appointment_doctor_date unique (doctor_id, appointment_date),
+    constraint fk_appointment_doctor foreign key (doctor_id) references doctor,
+    constraint fk_appointment_patient foreign key (patient_id) references patient
+);
+
+create index if not exists idx_appointment_date on appointment (appointment_date);
+
+create table if not exists appointment_archive (
+    id integer not null,
+    appointment_date timestamp(6),
+    doctor_id integer not null,
+    patient_id integer not null,
+    archived_at timestamp(6),
+    primary key (id)
+);
+
+create index if not exists idx_appointment_archive_doctor on appointment_archive (doctor_id);
+create index if not exists idx_appointment_archive_patient on appointment_archive (patient_id);
+
+create table if not exists appointment_outbox (
+    id bigint not null,
+    type varchar(255) check (type in ('CREATED','MOVED','DELETED')),
+    appointment_id integer not null,
+    doctor_id integer not null,
+    patient_id integer not null,
+    appointment_date timestamp(6),
+    occurred_at timestamp(6),
+    primary key (id)
+);
+
+create table if not exists idempotency_key (
+    id varchar(255) not null,
+    request_hash varchar(64) not null,
+    response varbinary(8192) not null,
+    expires_at timestamp(6),
+    primary key (id)
+);
+
+create index if not exists idx_idempotency_key_expires_at on idempotency_key (expires_at);
@@ -0,0 +1,66 @@
+package com.clinic.project1;
+
+import com.clinic.project1.repository.DoctorRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.metamodel.EntityType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Boots on db/schema.sql alone with ddl-auto=validate, which checks tables, columns and types against the entity
+// mappings. Validation ignores constraints and indexes, so the named ones the entities declare are checked here.
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:faststart",
+        "spring.jpa.properties.hibernate.cache.region_prefix=faststart",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@ActiveProfiles({"test", "fast-start"})
+class FastStartSchemaTest {
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testSchemaScript_MatchesEntityMappings() {
+        assertEquals(0, doctorRepository.count());
+    }
+
+    @Test
+    void testSchemaScript_HasNamedConstraintsAndIndexesOfEntities() {
+        Set<String> declared = entityManagerFactory.getMetamodel().getEntities().stream()
+                .map(EntityType::getJavaType)
+                .map(type -> type.getAnnotation(Table.class))
+                .filter(Objects::nonNull)
+                .flatMap(table -> Stream.concat(
+                        Arrays.stream(table.uniqueConstraints()).map(UniqueConstraint::name),
+                        Arrays.stream(table.indexes()).map(Index::name)))
+                .filter(name -> !name.isEmpty())
+                .map(String::toUpperCase)
+                .collect(Collectors.toSet());
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "select constraint_name from information_schema.table_constraints", String.class));
+        existing.addAll(jdbcTemplate.queryForList("select index_name from information_schema.indexes", String.class));
+
+        assertTrue(declared.contains("UK_APPOINTMENT_DOCTOR_DATE"));
+        assertEquals(Set.of(), declared.stream().filter(name -> !existing.contains(name)).collect(Collectors.toSet()));
+    }
+}
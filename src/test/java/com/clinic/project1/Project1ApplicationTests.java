@@ -1,13 +1,28 @@
 package com.clinic.project1;
 
+import com.clinic.project1.admission.AdmissionFilter;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
+@ActiveProfiles("test")
 class Project1ApplicationTests {
 
+    @Autowired
+    private ApplicationContext applicationContext;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void testAdmissionFilter_OffByDefault() {
+        assertEquals(0, applicationContext.getBeanNamesForType(AdmissionFilter.class).length);
+    }
+
 }
@@ -0,0 +1,71 @@
+package com.clinic.project1.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void testTryAcquire_RejectsAtLimitAndAdmitsAfterRelease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 2, 2);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.release(FAST);
+
+        assertTrue(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @Test
+    void testOnSample_SteadyLatencyUnderLoad_GrowsUpToMax() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 20);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(FAST, limit.getLimit());
+        }
+
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void testOnSample_LatencyJump_ShrinksThenRecovers() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 20);
+        for (int i = 0; i < 1000; i++) {
+            limit.onSample(FAST, limit.getLimit());
+        }
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(SLOW, limit.getLimit());
+        }
+        int shrunk = limit.getLimit();
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(FAST, limit.getLimit());
+        }
+
+        assertTrue(shrunk < 10, "limit after latency jump was " + shrunk);
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void testOnSample_MostlyIdle_DoesNotGrow() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 20);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(FAST, 1);
+        }
+
+        assertEquals(8, limit.getLimit());
+    }
+}
@@ -0,0 +1,99 @@
+package com.clinic.project1.admission;
+
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.model.command.create.CreateDoctorCommand;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:admission",
+        "spring.jpa.properties.hibernate.cache.region_prefix=admission",
+        "clinic.admission.enabled=true",
+        "clinic.admission.client-burst=2",
+        "clinic.admission.client-rate=0.01",
+        "clinic.admission.trusted-proxies=" + AdmissionFilterTest.PROXY})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdmissionFilterTest {
+
+    static final String PROXY = "10.0.0.1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testWrites_ClientOverItsBurst_RejectedWithRetryAfterWhileOthersAndReadsPass() throws Exception {
+        double throttledBefore = writes("throttled");
+        double admittedBefore = writes("admitted");
+
+        mockMvc.perform(createDoctor(PROXY, "reception-1")).andExpect(status().isCreated());
+        mockMvc.perform(createDoctor(PROXY, "reception-1")).andExpect(status().isCreated());
+
+        mockMvc.perform(createDoctor(PROXY, "reception-1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        mockMvc.perform(createDoctor(PROXY, "reception-2")).andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/doctors").header("X-Client-Id", "reception-1").with(from(PROXY)))
+                .andExpect(status().isOk());
+
+        assertEquals(1, writes("throttled") - throttledBefore);
+        assertEquals(3, writes("admitted") - admittedBefore);
+    }
+
+    @Test
+    void testWrites_UntrustedCallerRotatingClientHeader_ThrottledByRemoteAddress() throws Exception {
+        mockMvc.perform(createDoctor("192.0.2.7", "rotating-1")).andExpect(status().isCreated());
+        mockMvc.perform(createDoctor("192.0.2.7", "rotating-2")).andExpect(status().isCreated());
+
+        mockMvc.perform(createDoctor("192.0.2.7", "rotating-3")).andExpect(status().isTooManyRequests());
+        mockMvc.perform(createDoctor("192.0.2.8", "rotating-3")).andExpect(status().isCreated());
+    }
+
+    private double writes(String outcome) {
+        return meterRegistry.get(AdmissionFilter.METRIC_REQUESTS)
+                .tags("class", "write", "outcome", outcome).counter().count();
+    }
+
+    private static RequestPostProcessor from(String remoteAddress) {
+        return request -> {
+            request.setRemoteAddr(remoteAddress);
+            return request;
+        };
+    }
+
+    private MockHttpServletRequestBuilder createDoctor(String remoteAddress, String client) throws Exception {
+        CreateDoctorCommand command = CreateDoctorCommand.builder()
+                .firstName("Doctor")
+                .lastName("Lastname")
+                .specializationSet(Set.of(Specialization.FAMILY_MEDICINE))
+                .build();
+        return post("/api/v1/doctors")
+                .header("X-Client-Id", client)
+                .with(from(remoteAddress))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(command));
+    }
+}
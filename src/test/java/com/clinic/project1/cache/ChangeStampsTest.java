@@ -0,0 +1,38 @@
+package com.clinic.project1.cache;
+
+import com.clinic.project1.model.Doctor;
+import com.clinic.project1.model.Patient;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeStampsTest {
+
+    @Test
+    void testStampOf_NoReplicaLag_ChangesWithEveryBump() {
+        ChangeStamps changeStamps = new ChangeStamps(Duration.ZERO);
+        Optional<String> before = changeStamps.stampOf(Doctor.class);
+
+        changeStamps.bump(Doctor.class);
+
+        assertTrue(before.isPresent());
+        assertNotEquals(before, changeStamps.stampOf(Doctor.class));
+        assertEquals(before, changeStamps.stampOf(Patient.class));
+    }
+
+    @Test
+    void testStampOf_ChangeWithinReplicaLag_ReturnsEmpty() {
+        ChangeStamps changeStamps = new ChangeStamps(Duration.ofMinutes(1));
+        assertTrue(changeStamps.stampOf(Doctor.class).isPresent());
+
+        changeStamps.bump(Doctor.class);
+
+        assertTrue(changeStamps.stampOf(Doctor.class).isEmpty());
+        assertTrue(changeStamps.stampOf(Patient.class).isPresent());
+    }
+}
@@ -0,0 +1,76 @@
+package com.clinic.project1.cache;
+
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.model.Doctor;
+import com.clinic.project1.model.command.create.CreateDoctorCommand;
+import com.clinic.project1.model.command.create.CreatePatientCommand;
+import com.clinic.project1.model.command.update.UpdateDoctorSpecializationCommand;
+import com.clinic.project1.service.DoctorService;
+import com.clinic.project1.service.PatientService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:doctorcache",
+        "spring.jpa.properties.hibernate.cache.region_prefix=doctorcache"})
+@ActiveProfiles("test")
+class DoctorCacheTest {
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testPatientWrites_DoctorServedFromSecondLevelCacheUntilEvicted() {
+        int doctorId = doctorService.save(CreateDoctorCommand.builder()
+                .firstName("Cached")
+                .lastName("Doctor")
+                .specializationSet(Set.of(Specialization.FAMILY_MEDICINE))
+                .build()).getId();
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        Cache cache = sessionFactory.getCache();
+
+        savePatient(doctorId);
+        statistics.clear();
+        savePatient(doctorId);
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertTrue(statistics.getDomainDataRegionStatistics(Doctor.class.getName()).getHitCount() > 0);
+        assertTrue(statistics.getDomainDataRegionStatistics(DoctorCache.SPECIALIZATIONS_REGION).getHitCount() > 0);
+
+        UpdateDoctorSpecializationCommand command = new UpdateDoctorSpecializationCommand();
+        command.setSpecializations(Set.of(Specialization.FAMILY_MEDICINE, Specialization.PEDIATRICS));
+        doctorService.updateSpecialization(doctorId, command);
+
+        assertFalse(cache.containsEntity(Doctor.class, doctorId));
+        assertFalse(cache.containsCollection(DoctorCache.SPECIALIZATIONS_REGION, doctorId));
+    }
+
+    private void savePatient(int doctorId) {
+        patientService.save(CreatePatientCommand.builder()
+                .firstName("Patient")
+                .lastName("Lastname")
+                .disease(Disease.FLU)
+                .doctorId(doctorId)
+                .build());
+    }
+}
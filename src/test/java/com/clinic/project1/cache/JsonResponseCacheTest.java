@@ -0,0 +1,62 @@
+package com.clinic.project1.cache;
+
+import com.clinic.project1.model.dto.DoctorDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonResponseCacheTest {
+
+    private JsonResponseCache jsonResponseCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        jsonResponseCache = new JsonResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), DataSize.ofKilobytes(64));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testGet_SameVersion_ReturnsCachedBytesWithoutLoading() {
+        byte[] first = jsonResponseCache.get(DoctorDto.class, 1, 0, loader("first"));
+        byte[] second = jsonResponseCache.get(DoctorDto.class, 1, 0, loader("second"));
+
+        assertEquals(1, loads.get());
+        assertArrayEquals(first, second);
+        assertEquals("{\"name\":\"first\"}", new String(second));
+    }
+
+    @Test
+    void testGet_NewerVersion_ReloadsBytes() {
+        jsonResponseCache.get(DoctorDto.class, 1, 0, loader("first"));
+        byte[] updated = jsonResponseCache.get(DoctorDto.class, 1, 1, loader("updated"));
+
+        assertEquals(2, loads.get());
+        assertEquals("{\"name\":\"updated\"}", new String(updated));
+    }
+
+    @Test
+    void testEvict_OutsideTransaction_ReloadsOnNextGet() {
+        jsonResponseCache.get(DoctorDto.class, 1, 0, loader("first"));
+        jsonResponseCache.evict(DoctorDto.class, 1);
+        jsonResponseCache.get(DoctorDto.class, 1, 0, loader("first"));
+
+        assertEquals(2, loads.get());
+    }
+
+    private Supplier<Object> loader(String name) {
+        return () -> {
+            loads.incrementAndGet();
+            return Map.of("name", name);
+        };
+    }
+}
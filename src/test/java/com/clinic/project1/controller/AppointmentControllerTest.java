@@ -2,16 +2,23 @@ package com.clinic.project1.controller;
 
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.clinic.project1.common.Specialization;
+import com.clinic.project1.exception.BatchTooLargeException;
 import com.clinic.project1.model.Appointment;
 import com.clinic.project1.model.Doctor;
 import com.clinic.project1.model.Patient;
@@ -21,6 +28,7 @@ import com.clinic.project1.repository.AppointmentRepository;
 import com.clinic.project1.repository.DoctorRepository;
 import com.clinic.project1.repository.PatientRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -28,11 +36,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @SpringBootTest
@@ -59,6 +70,7 @@ class AppointmentControllerTest {
     void testFindAll_ResultsInAppointmentListBeingReturned() throws Exception {
         Doctor doctor = Doctor.builder()
                 .id(1)
+                .version(doctorRepository.findVersionById(1).orElse(0L))
                 .firstName("Doctor1")
                 .lastName("DoctorLastName1")
                 .specializations(Set.of(Specialization.PULMONOLOGY))
@@ -68,6 +80,7 @@ class AppointmentControllerTest {
 
         Patient patient = Patient.builder()
                 .id(1)
+                .version(patientRepository.findVersionById(1).orElse(0L))
                 .firstName("Patient1")
                 .lastName("LastName1")
                 .build();
@@ -76,6 +89,7 @@ class AppointmentControllerTest {
         LocalDateTime appointmentDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
         Appointment appointment = Appointment.builder()
                 .id(1)
+                .version(appointmentRepository.findVersionById(1).orElse(0L))
                 .appointmentDate(appointmentDate)
                 .doctor(doctor)
                 .patient(patient)
@@ -100,6 +114,7 @@ class AppointmentControllerTest {
     void testFindById_AppointmentFound_ResultsInAppointmentBeingReturned() throws Exception {
         Doctor doctor = Doctor.builder()
                 .id(1)
+                .version(doctorRepository.findVersionById(1).orElse(0L))
                 .firstName("Doctor1")
                 .lastName("DoctorLastName1")
                 .specializations(Set.of(Specialization.PULMONOLOGY))
@@ -109,6 +124,7 @@ class AppointmentControllerTest {
 
         Patient patient = Patient.builder()
                 .id(1)
+                .version(patientRepository.findVersionById(1).orElse(0L))
                 .firstName("Patient1")
                 .lastName("LastName1")
                 .build();
@@ -117,6 +133,7 @@ class AppointmentControllerTest {
         LocalDateTime appointmentDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
         Appointment appointment = Appointment.builder()
                 .id(1)
+                .version(appointmentRepository.findVersionById(1).orElse(0L))
                 .appointmentDate(appointmentDate)
                 .doctor(doctor)
                 .patient(patient)
@@ -138,6 +155,7 @@ class AppointmentControllerTest {
     void testSave_NewAppointmentSaved_ResultsInAppointmentBeingSaved() throws Exception {
         Doctor doctor = Doctor.builder()
                 .id(1)
+                .version(doctorRepository.findVersionById(1).orElse(0L))
                 .firstName("Doctor1")
                 .lastName("DoctorLastName1")
                 .specializations(Set.of(Specialization.PULMONOLOGY))
@@ -147,6 +165,7 @@ class AppointmentControllerTest {
 
         Patient patient = Patient.builder()
                 .id(1)
+                .version(patientRepository.findVersionById(1).orElse(0L))
                 .firstName("Patient1")
                 .lastName("LastName1")
                 .build();
@@ -171,4 +190,64 @@ class AppointmentControllerTest {
                 .andExpect(jsonPath("$.doctorId").value(command.getDoctorId()))
                 .andExpect(jsonPath("$.patientId").value(command.getPatientId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testExport_ResultsInOneJsonLinePerAppointment() throws Exception {
+        MvcResult asyncResult = mockMvc.perform(get("/api/v1/appointments/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(appointmentRepository.count(), body.lines().count());
+    }
+
+    @Test
+    void testSaveBatch_UnknownDoctor_ResultsInItemBeingRejected() throws Exception {
+        CreateAppointmentCommand command = CreateAppointmentCommand.builder()
+                .doctorId(999)
+                .patientId(1)
+                .date(LocalDateTime.now().plusDays(1))
+                .build();
+
+        mockMvc.perform(post("/api/v1/appointments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(command))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].status").value("REJECTED"))
+                .andExpect(jsonPath("$[0].error").value("Doctor with id 999 not found"));
+    }
+
+    @Test
+    void testSaveBatch_AboveMaximumSize_ResultsInBatchTooLargeException() throws Exception {
+        CreateAppointmentCommand command = CreateAppointmentCommand.builder()
+                .doctorId(999)
+                .patientId(1)
+                .date(LocalDateTime.now().plusDays(1))
+                .build();
+        String body = objectMapper.writeValueAsString(Collections.nCopies(101, command));
+
+        ServletException exception = assertThrows(ServletException.class, () ->
+                mockMvc.perform(post("/api/v1/appointments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body)));
+
+        assertInstanceOf(BatchTooLargeException.class, exception.getCause());
+        assertEquals("Batch of 101 appointments exceeds the maximum of 100", exception.getCause().getMessage());
+    }
+
+    @Test
+    void testFindArchived_UnknownPatient_ResultsInEmptyHistory() throws Exception {
+        mockMvc.perform(get("/api/v1/appointments/archive").param("patientId", "999"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
@@ -2,12 +2,15 @@ package com.clinic.project1.controller;
 
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -15,12 +18,14 @@ import com.clinic.project1.common.Specialization;
 import com.clinic.project1.model.Doctor;
 import com.clinic.project1.model.command.create.CreateDoctorCommand;
 import com.clinic.project1.model.command.update.FullUpdateDoctorCommand;
+import com.clinic.project1.model.command.update.UpdateDoctorSpecializationCommand;
 import com.clinic.project1.repository.DoctorRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -65,6 +70,7 @@ class DoctorControllerTest {
     void testUpdate_DoctorUpdated_ResultsInDoctorBeingUpdated() throws Exception {
         Doctor doctor = Doctor.builder()
                 .id(1)
+                .version(doctorRepository.findVersionById(1).orElse(0L))
                 .firstName("Test")
                 .lastName("Testowy")
                 .specializations(Set.of(Specialization.PULMONOLOGY))
@@ -88,5 +94,147 @@ class DoctorControllerTest {
                 .andExpect(jsonPath("$.lastName").value(command.getLastName()))
                 .andExpect(jsonPath("$.specializations", containsInAnyOrder(Specialization.PEDIATRICS.toString())));
     }
-}
 
+    @Test
+    void testFindAll_LimitReached_ResultsInNextCursorBeingReturned() throws Exception {
+        Doctor first = doctorRepository.save(Doctor.builder()
+                .firstName("First")
+                .lastName("Doctor")
+                .specializations(Set.of(Specialization.PULMONOLOGY))
+                .build());
+        Doctor second = doctorRepository.save(Doctor.builder()
+                .firstName("Second")
+                .lastName("Doctor")
+                .specializations(Set.of(Specialization.PEDIATRICS))
+                .build());
+
+        mockMvc.perform(get("/api/v1/doctors")
+                        .param("after", String.valueOf(first.getId() - 1))
+                        .param("limit", "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(first.getId()))
+                .andExpect(header().string("X-Next-After", String.valueOf(first.getId())));
+
+        mockMvc.perform(get("/api/v1/doctors")
+                        .param("after", String.valueOf(first.getId()))
+                        .param("limit", "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(second.getId()))
+                .andExpect(jsonPath("$[0].specializations", containsInAnyOrder(Specialization.PEDIATRICS.toString())));
+    }
+
+    @Test
+    void testFindFreeSlots_NewDoctor_ResultsInRequestedNumberOfSlots() throws Exception {
+        CreateDoctorCommand command = CreateDoctorCommand.builder()
+                .firstName("Free")
+                .lastName("Doctor")
+                .specializationSet(Set.of(Specialization.PULMONOLOGY))
+                .build();
+        String response = mockMvc.perform(post("/api/v1/doctors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(command)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        int doctorId = objectMapper.readTree(response).get("id").asInt();
+
+        mockMvc.perform(get("/api/v1/doctors/" + doctorId + "/free-slots").param("count", "3"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].doctorId").value(doctorId));
+
+        mockMvc.perform(get("/api/v1/doctors/free-slots/earliest").param("disease", "PNEUMONIA"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.start").isNotEmpty());
+    }
+
+    @Test
+    void testFindMatching_NewPediatrician_ResultsInDoctorMatchedWithoutLoad() throws Exception {
+        CreateDoctorCommand command = CreateDoctorCommand.builder()
+                .firstName("Matching")
+                .lastName("Pediatrician")
+                .specializationSet(Set.of(Specialization.PEDIATRICS))
+                .build();
+        String response = mockMvc.perform(post("/api/v1/doctors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(command)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        int doctorId = objectMapper.readTree(response).get("id").asInt();
+
+        mockMvc.perform(get("/api/v1/doctors/match").param("disease", "MEASLES").param("limit", "500"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + doctorId + ")].patientCount").value(0))
+                .andExpect(jsonPath("$[?(@.id == " + doctorId + ")].upcomingAppointmentCount").value(0));
+    }
+
+    @Test
+    void testFindById_ETagMatches_ResultsInNotModifiedUntilDoctorChanges() throws Exception {
+        Doctor doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Conditional")
+                .lastName("Doctor")
+                .specializations(Set.of(Specialization.PULMONOLOGY))
+                .build());
+
+        String etag = mockMvc.perform(get("/api/v1/doctors/" + doctor.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/doctors/" + doctor.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        UpdateDoctorSpecializationCommand command = new UpdateDoctorSpecializationCommand();
+        command.setSpecializations(Set.of(Specialization.PEDIATRICS));
+        mockMvc.perform(patch("/api/v1/doctors/" + doctor.getId() + "/specializations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(command)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/doctors/" + doctor.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.specializations", containsInAnyOrder(Specialization.PEDIATRICS.toString())));
+    }
+
+    @Test
+    void testFindAll_ETagMatches_ResultsInNotModifiedUntilDoctorAdded() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/doctors"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/doctors").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        doctorRepository.save(Doctor.builder()
+                .firstName("Listed")
+                .lastName("Doctor")
+                .specializations(Set.of(Specialization.PEDIATRICS))
+                .build());
+
+        mockMvc.perform(get("/api/v1/doctors").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+}
@@ -0,0 +1,44 @@
+package com.clinic.project1.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:metrics",
+        "spring.jpa.properties.hibernate.cache.region_prefix=metrics"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testPrometheus_AfterRequest_ExposesEndpointServiceHibernateAndPoolMetrics() throws Exception {
+        mockMvc.perform(get("/api/v1/doctors"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{error=\"none\",exception=\"none\",method=\"GET\"")))
+                .andExpect(content().string(containsString("uri=\"/api/v1/doctors\"")))
+                .andExpect(content().string(containsString(
+                        "clinic_service_seconds_bucket{class=\"com.clinic.project1.service.DoctorService\"")))
+                .andExpect(content().string(containsString("method=\"findAll\"")))
+                .andExpect(content().string(containsString("hibernate_statements_total")))
+                .andExpect(content().string(containsString("hibernate_entities_loads_total")))
+                .andExpect(content().string(containsString("hibernate_collections_fetches_total")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")));
+    }
+}
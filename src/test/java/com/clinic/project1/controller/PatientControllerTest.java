@@ -40,6 +40,7 @@ class PatientControllerTest {
 
         Doctor doctor = Doctor.builder()
                 .id(1)
+                .version(doctorRepository.findVersionById(1).orElse(0L))
                 .firstName("Doctor1")
                 .lastName("DoctorLastName1")
                 .specializations(Set.of(Specialization.PULMONOLOGY))
@@ -48,6 +49,7 @@ class PatientControllerTest {
 
         Patient patient = Patient.builder()
                 .id(1)
+                .version(patientRepository.findVersionById(1).orElse(0L))
                 .firstName("Patient1")
                 .lastName("LastName1")
                 .disease(Disease.BRONCHITIS)
@@ -73,6 +75,7 @@ class PatientControllerTest {
 
         Doctor doctor = Doctor.builder()
                 .id(1)
+                .version(doctorRepository.findVersionById(1).orElse(0L))
                 .firstName("Doctor1")
                 .lastName("DoctorLastName1")
                 .specializations(Set.of(Specialization.PULMONOLOGY, Specialization.PEDIATRICS))
@@ -81,6 +84,7 @@ class PatientControllerTest {
 
         Patient patient = Patient.builder()
                 .id(1)
+                .version(patientRepository.findVersionById(1).orElse(0L))
                 .firstName("Patient1")
                 .lastName("LastName1")
                 .disease(Disease.BRONCHITIS)
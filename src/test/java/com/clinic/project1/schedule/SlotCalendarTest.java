@@ -0,0 +1,111 @@
+package com.clinic.project1.schedule;
+
+import com.clinic.project1.model.projection.DoctorSlotView;
+import com.clinic.project1.repository.AppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SlotCalendarTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    private SlotCalendar slotCalendar;
+
+    @BeforeEach
+    void setUp() {
+        slotCalendar = new SlotCalendar(appointmentRepository, 30, "08:00", "10:00", 2);
+    }
+
+    @Test
+    void testFindFreeSlots_EmptyCalendar_ReturnsConsecutiveSlots() {
+        List<LocalDateTime> freeSlots = slotCalendar.findFreeSlots(1, DAY.atTime(8, 10), 3);
+
+        assertEquals(List.of(DAY.atTime(8, 30), DAY.atTime(9, 0), DAY.atTime(9, 30)), freeSlots);
+    }
+
+    @Test
+    void testFindFreeSlots_OccupiedSlots_SkipsThemAndRollsOverToNextDay() {
+        slotCalendar.occupy(1, DAY.atTime(8, 0));
+        slotCalendar.occupy(1, DAY.atTime(9, 0));
+        slotCalendar.occupy(1, DAY.atTime(9, 30));
+
+        List<LocalDateTime> freeSlots = slotCalendar.findFreeSlots(1, DAY.atStartOfDay(), 3);
+
+        assertEquals(List.of(DAY.atTime(8, 30), DAY.plusDays(1).atTime(8, 0), DAY.plusDays(1).atTime(8, 30)), freeSlots);
+    }
+
+    @Test
+    void testFindEarliestFreeSlot_OtherDoctorsBookingsIgnored() {
+        slotCalendar.occupy(2, DAY.atTime(8, 0));
+
+        assertEquals(Optional.of(DAY.atTime(8, 0)), slotCalendar.findEarliestFreeSlot(1, DAY.atStartOfDay()));
+    }
+
+    @Test
+    void testRelease_TwoBookingsInOneSlot_SlotStaysOccupiedUntilBothReleased() {
+        slotCalendar.occupy(1, DAY.atTime(8, 0));
+        slotCalendar.occupy(1, DAY.atTime(8, 15));
+
+        slotCalendar.release(1, DAY.atTime(8, 15));
+        assertEquals(Optional.of(DAY.atTime(8, 30)), slotCalendar.findEarliestFreeSlot(1, DAY.atStartOfDay()));
+
+        slotCalendar.release(1, DAY.atTime(8, 0));
+        assertEquals(Optional.of(DAY.atTime(8, 0)), slotCalendar.findEarliestFreeSlot(1, DAY.atStartOfDay()));
+    }
+
+    @Test
+    void testMove_SlotReleasedAndNewSlotOccupied() {
+        slotCalendar.occupy(1, DAY.atTime(8, 0));
+
+        slotCalendar.move(1, DAY.atTime(8, 0), 1, DAY.atTime(8, 30));
+
+        assertEquals(List.of(DAY.atTime(8, 0), DAY.atTime(9, 0)), slotCalendar.findFreeSlots(1, DAY.atStartOfDay(), 2));
+    }
+
+    @Test
+    void testFindFreeSlots_HorizonReached_ReturnsFewerSlots() {
+        assertEquals(12, slotCalendar.findFreeSlots(1, DAY.atStartOfDay(), 100).size());
+    }
+
+    @Test
+    void testPruneBefore_PastDaysDropped_LaterDaysKept() {
+        slotCalendar.occupy(1, DAY.minusDays(2).atTime(8, 0));
+        slotCalendar.occupy(1, DAY.minusDays(2).atTime(8, 0));
+        slotCalendar.occupy(1, DAY.atTime(8, 0));
+
+        slotCalendar.pruneBefore(DAY);
+
+        assertEquals(Optional.of(DAY.minusDays(2).atTime(8, 0)),
+                slotCalendar.findEarliestFreeSlot(1, DAY.minusDays(2).atStartOfDay()));
+        assertEquals(Optional.of(DAY.atTime(8, 30)), slotCalendar.findEarliestFreeSlot(1, DAY.atStartOfDay()));
+    }
+
+    @Test
+    void testRebuild_LoadsBookingsFromRepository() {
+        DoctorSlotView slot = mock(DoctorSlotView.class);
+        when(slot.getDoctorId()).thenReturn(1);
+        when(slot.getAppointmentDate()).thenReturn(DAY.atTime(8, 0));
+        when(appointmentRepository.findSlotsFrom(any(LocalDateTime.class))).thenReturn(List.of(slot));
+
+        slotCalendar.rebuild();
+
+        assertEquals(Optional.of(DAY.atTime(8, 30)), slotCalendar.findEarliestFreeSlot(1, DAY.atStartOfDay()));
+    }
+}
@@ -0,0 +1,43 @@
+package com.clinic.project1.schedule;
+
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.repository.DoctorRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpecializationIndexTest {
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @InjectMocks
+    private SpecializationIndex specializationIndex;
+
+    @Test
+    void testContains_DoctorWithoutSpecializations_KnownUntilRemoved() {
+        when(doctorRepository.findAllIds()).thenReturn(List.of(1));
+        specializationIndex.rebuild();
+        specializationIndex.put(2, Set.of(Specialization.PEDIATRICS));
+
+        assertTrue(specializationIndex.contains(1));
+        assertTrue(specializationIndex.contains(2));
+        assertEquals(Set.of(), specializationIndex.specializationsOf(1));
+
+        specializationIndex.remove(2);
+
+        assertFalse(specializationIndex.contains(2));
+        assertEquals(0, specializationIndex.doctorsWith(Specialization.PEDIATRICS).count());
+    }
+}
@@ -0,0 +1,108 @@
+package com.clinic.project1.search;
+
+import com.clinic.project1.model.dto.NameMatchDto;
+import com.clinic.project1.model.projection.PersonNameView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NameIndexTest {
+
+    private NameIndex nameIndex;
+
+    @BeforeEach
+    void setUp() {
+        nameIndex = new NameIndex();
+        nameIndex.put(1, "Jan", "Kowalski");
+        nameIndex.put(2, "Anna", "Kowalska");
+        nameIndex.put(3, "Łukasz", "Żółćkiewicz");
+        nameIndex.put(4, "Piotr", "Nowakowski");
+        nameIndex.put(5, "Ewa", "Nowak");
+    }
+
+    @Test
+    void testSearch_PrefixIgnoresCaseAndDiacritics() {
+        assertEquals(List.of(3), ids(nameIndex.search("zolc", 10)));
+        assertEquals(List.of(3), ids(nameIndex.search("LUK", 10)));
+        assertEquals(List.of(2, 1), ids(nameIndex.search("Kowal", 10)));
+    }
+
+    @Test
+    void testSearch_ExactTokenRankedBeforeLongerPrefixMatches() {
+        assertEquals(List.of(5, 4), ids(nameIndex.search("nowak", 10)));
+    }
+
+    @Test
+    void testSearch_OneTypoStillMatches() {
+        assertEquals(List.of(1), ids(nameIndex.search("Kowlaski", 10)));
+        assertEquals(List.of(1), ids(nameIndex.search("kowalskii", 10)));
+        assertEquals(List.of(5), ids(nameIndex.search("nowk", 10)));
+        assertTrue(nameIndex.search("kwlsk", 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_EveryTermHasToMatch() {
+        assertEquals(List.of(1), ids(nameIndex.search("jan kow", 10)));
+        assertTrue(nameIndex.search("jan nowak", 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_LimitApplied() {
+        assertEquals(List.of(2), ids(nameIndex.search("kow", 1)));
+    }
+
+    @Test
+    void testPutAndRemove_KeepIndexCurrent() {
+        nameIndex.put(1, "Jan", "Nowicki");
+        nameIndex.remove(2);
+
+        assertTrue(nameIndex.search("kowal", 10).isEmpty());
+        assertEquals(List.of(1), ids(nameIndex.search("nowi", 10)));
+    }
+
+    @Test
+    void testReplaceAll_DropsPreviousNames() {
+        nameIndex.replaceAll(List.of(name(7, "Zofia", "Wiśniewska")));
+
+        assertTrue(nameIndex.search("kow", 10).isEmpty());
+        assertEquals(List.of(7), ids(nameIndex.search("wisn", 10)));
+    }
+
+    @Test
+    void testWithinOneEdit() {
+        assertTrue(NameIndex.withinOneEdit("kowalski", "kowalsky"));
+        assertTrue(NameIndex.withinOneEdit("kowalski", "kowlaski"));
+        assertTrue(NameIndex.withinOneEdit("kowalski", "kowalsk"));
+        assertTrue(NameIndex.withinOneEdit("owalski", "kowalski"));
+        assertFalse(NameIndex.withinOneEdit("kowalski", "kowalska1"));
+        assertFalse(NameIndex.withinOneEdit("kowalski", "kawalsky"));
+    }
+
+    private static List<Integer> ids(List<NameMatchDto> matches) {
+        return matches.stream().map(NameMatchDto::getId).toList();
+    }
+
+    private static PersonNameView name(int id, String firstName, String lastName) {
+        return new PersonNameView() {
+            @Override
+            public int getId() {
+                return id;
+            }
+
+            @Override
+            public String getFirstName() {
+                return firstName;
+            }
+
+            @Override
+            public String getLastName() {
+                return lastName;
+            }
+        };
+    }
+}
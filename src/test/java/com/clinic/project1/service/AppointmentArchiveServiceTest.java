@@ -0,0 +1,101 @@
+package com.clinic.project1.service;
+
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.model.Appointment;
+import com.clinic.project1.model.Doctor;
+import com.clinic.project1.model.Patient;
+import com.clinic.project1.model.dto.AppointmentDto;
+import com.clinic.project1.repository.AppointmentArchiveRepository;
+import com.clinic.project1.repository.AppointmentRepository;
+import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.repository.PatientRepository;
+import com.clinic.project1.stats.DailyAppointmentCounters;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:archive",
+        "spring.jpa.properties.hibernate.cache.region_prefix=archive",
+        "clinic.archive.batch-size=2"})
+@ActiveProfiles("test")
+class AppointmentArchiveServiceTest {
+
+    @Autowired
+    private AppointmentArchiveService appointmentArchiveService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentArchiveRepository appointmentArchiveRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DailyAppointmentCounters dailyAppointmentCounters;
+
+    @Test
+    void testArchiveBefore_PastAppointmentsMovedInBatches_FutureAppointmentsKept() {
+        Doctor doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Archive")
+                .lastName("Doctor")
+                .specializations(Set.of(Specialization.FAMILY_MEDICINE))
+                .build());
+        Patient patient = patientRepository.save(Patient.builder()
+                .firstName("Archive")
+                .lastName("Patient")
+                .disease(Disease.FLU)
+                .doctor(doctor)
+                .build());
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Integer> pastIds = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            pastIds.add(saveAppointment(doctor, patient, now.minusDays(60 + i)).getId());
+        }
+        int recentId = saveAppointment(doctor, patient, now.minusDays(1)).getId();
+        int futureId = saveAppointment(doctor, patient, now.plusDays(1)).getId();
+
+        int archived = appointmentArchiveService.archiveBefore(now.minusDays(30));
+
+        assertEquals(5, archived);
+        pastIds.forEach(id -> assertFalse(appointmentRepository.existsById(id)));
+        assertTrue(appointmentRepository.existsById(recentId));
+        assertTrue(appointmentRepository.existsById(futureId));
+        assertEquals(5, appointmentArchiveRepository.count());
+
+        List<AppointmentDto> history = appointmentArchiveService.findHistory(null, patient.getId(), 0, 3).getContent();
+        assertEquals(pastIds.subList(0, 3), history.stream().map(AppointmentDto::getId).toList());
+        assertEquals(doctor.getId(), history.get(0).getDoctorId());
+        assertEquals(now.minusDays(61), history.get(0).getAppointmentDate());
+        assertTrue(appointmentArchiveService.findHistory(doctor.getId() + 1, null, 0, 10).isEmpty());
+
+        assertEquals(0, appointmentArchiveService.archiveBefore(now.minusDays(30)));
+
+        dailyAppointmentCounters.rebuild();
+        assertEquals(1, dailyAppointmentCounters.countsOf(now.minusDays(61).toLocalDate()).getDoctors().get(doctor.getId()));
+        assertEquals(1, dailyAppointmentCounters.countsOf(now.plusDays(1).toLocalDate()).getDoctors().get(doctor.getId()));
+    }
+
+    private Appointment saveAppointment(Doctor doctor, Patient patient, LocalDateTime date) {
+        return appointmentRepository.save(Appointment.builder()
+                .doctor(doctor)
+                .patient(patient)
+                .appointmentDate(date)
+                .build());
+    }
+}
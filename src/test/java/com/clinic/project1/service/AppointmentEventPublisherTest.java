@@ -0,0 +1,88 @@
+package com.clinic.project1.service;
+
+import com.clinic.project1.common.AppointmentEventType;
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.model.Doctor;
+import com.clinic.project1.model.Patient;
+import com.clinic.project1.model.command.create.CreateAppointmentCommand;
+import com.clinic.project1.model.command.update.UpdateAppointmentDateCommand;
+import com.clinic.project1.model.dto.AppointmentDto;
+import com.clinic.project1.model.dto.AppointmentEventDto;
+import com.clinic.project1.outbox.QueueAppointmentEventSink;
+import com.clinic.project1.repository.AppointmentOutboxRepository;
+import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:outbox",
+        "spring.jpa.properties.hibernate.cache.region_prefix=outbox",
+        "clinic.outbox.batch-size=2",
+        "clinic.outbox.interval=PT1H"})
+@ActiveProfiles("test")
+class AppointmentEventPublisherTest {
+
+    @Autowired
+    private AppointmentEventPublisher appointmentEventPublisher;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentOutboxRepository appointmentOutboxRepository;
+
+    @Autowired
+    private QueueAppointmentEventSink queueAppointmentEventSink;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Test
+    void testPublishPending_BookingMovedAndDeleted_ResultsInEventsPublishedInOrder() {
+        Doctor doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Outbox")
+                .lastName("Doctor")
+                .specializations(Set.of(Specialization.FAMILY_MEDICINE))
+                .build());
+        Patient patient = patientRepository.save(Patient.builder()
+                .firstName("Outbox")
+                .lastName("Patient")
+                .disease(Disease.FLU)
+                .doctor(doctor)
+                .build());
+        LocalDateTime date = LocalDateTime.now().plusDays(3).withNano(0);
+        AppointmentDto appointment = appointmentService.save(CreateAppointmentCommand.builder()
+                .doctorId(doctor.getId())
+                .patientId(patient.getId())
+                .date(date)
+                .build());
+        UpdateAppointmentDateCommand command = new UpdateAppointmentDateCommand();
+        command.setDateTime(date.plusDays(1));
+        appointmentService.updateDate(appointment.getId(), command);
+        appointmentService.deleteById(appointment.getId());
+        assertEquals(3, appointmentOutboxRepository.count());
+
+        assertEquals(3, appointmentEventPublisher.publishPending());
+
+        List<AppointmentEventDto> events = queueAppointmentEventSink.drain();
+        assertEquals(List.of(AppointmentEventType.CREATED, AppointmentEventType.MOVED, AppointmentEventType.DELETED),
+                events.stream().map(AppointmentEventDto::getType).toList());
+        events.forEach(event -> assertEquals(appointment.getId(), event.getAppointmentId()));
+        assertEquals(date, events.get(0).getAppointmentDate());
+        assertEquals(date.plusDays(1), events.get(1).getAppointmentDate());
+        assertEquals(0, appointmentOutboxRepository.count());
+        assertEquals(0, appointmentEventPublisher.publishPending());
+    }
+}
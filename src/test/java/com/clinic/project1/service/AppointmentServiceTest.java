@@ -1,5 +1,6 @@
 package com.clinic.project1.service;
 
+import com.clinic.project1.cache.JsonResponseCache;
 import com.clinic.project1.common.Disease;
 import com.clinic.project1.model.Appointment;
 import com.clinic.project1.model.Doctor;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 
 
@@ -27,13 +29,31 @@ import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.Captor;
 import org.mockito.ArgumentCaptor;
-
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.clinic.project1.repository.AppointmentOutboxRepository;
 import com.clinic.project1.repository.AppointmentRepository;
 import com.clinic.project1.repository.DoctorRepository;
 import com.clinic.project1.repository.PatientRepository;
+import com.clinic.project1.schedule.BookingLocks;
+import com.clinic.project1.schedule.SlotCalendar;
+import com.clinic.project1.stats.DailyAppointmentCounters;
 import com.clinic.project1.exception.AppointmentWithIdNotFoundException;
+import com.clinic.project1.exception.DoctorOccupiedException;
+import com.clinic.project1.common.BatchItemStatus;
+import com.clinic.project1.model.dto.BatchAppointmentResultDto;
+import com.clinic.project1.model.projection.DoctorSlotView;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 
 @ExtendWith(MockitoExtension.class)
 class AppointmentServiceTest {
@@ -50,25 +70,42 @@ class AppointmentServiceTest {
     @Mock
     private PatientRepository patientRepository;
 
+    @Mock
+    private SlotCalendar slotCalendar;
+
+    @Mock
+    private DailyAppointmentCounters dailyAppointmentCounters;
+
+    @Mock
+    private BookingLocks bookingLocks;
+
+    @Mock
+    private JsonResponseCache jsonResponseCache;
+
+    @Mock
+    private AppointmentOutboxRepository appointmentOutboxRepository;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @Captor
     private ArgumentCaptor<Appointment> appointmentArgumentCaptor;
 
     @Test
-    void testFindAll_ReturnsListOfAppointmentDtos() {
-        Doctor doctor = Doctor.builder().id(1).build();
-        Patient patient = Patient.builder().id(1).build();
-
-        List<Appointment> appointments = List.of(
-                Appointment.builder().id(1).doctor(doctor).patient(patient).build(),
-                Appointment.builder().id(2).doctor(doctor).patient(patient).build()
+    void testFindAll_ReturnsSliceOfAppointmentDtos() {
+        List<AppointmentDto> appointments = List.of(
+                AppointmentDto.builder().id(1).doctorId(1).patientId(1).build(),
+                AppointmentDto.builder().id(2).doctorId(1).patientId(1).build()
         );
-        when(appointmentRepository.findAll()).thenReturn(appointments);
+        when(appointmentRepository.findDtoByIdGreaterThan(eq(0), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(appointments, PageRequest.of(0, 50), false));
 
-        List<AppointmentDto> appointmentDtoList = appointmentService.findAll();
+        Slice<AppointmentDto> appointmentDtoSlice = appointmentService.findAll(0, 50);
 
-        assertNotNull(appointmentDtoList);
-        assertEquals(appointments.size(), appointmentDtoList.size());
-        verify(appointmentRepository).findAll();
+        assertNotNull(appointmentDtoSlice);
+        assertEquals(appointments.size(), appointmentDtoSlice.getNumberOfElements());
+        assertFalse(appointmentDtoSlice.hasNext());
+        verify(appointmentRepository).findDtoByIdGreaterThan(eq(0), any(Pageable.class));
     }
 
     @Test
@@ -104,37 +141,134 @@ class AppointmentServiceTest {
         assertEquals(command.getDoctorId(), savedAppointment.getDoctor().getId());
         assertEquals(command.getPatientId(), savedAppointment.getPatient().getId());
         assertEquals(command.getDate(), savedAppointment.getAppointmentDate());
+        verify(slotCalendar).occupy(command.getDoctorId(), command.getDate());
+        verify(dailyAppointmentCounters).record(command.getDoctorId(), command.getDate());
+        verify(bookingLocks).lockUntilCompletion(command.getDoctorId());
+    }
+
+    @Test
+    void testSave_SlotTakenConcurrently_ThrowsDoctorOccupiedException() {
+        CreateAppointmentCommand command = CreateAppointmentCommand.builder()
+                .doctorId(1)
+                .patientId(1)
+                .date(LocalDateTime.now().plusDays(1))
+                .build();
+
+        Doctor doctor = Doctor.builder()
+                .id(1)
+                .firstName("Doctor")
+                .lastName("Lastname")
+                .build();
+
+        Patient patient = Patient.builder()
+                .id(1)
+                .firstName("Patient")
+                .lastName("Lastname")
+                .disease(Disease.BRONCHITIS)
+                .build();
+
+        when(doctorRepository.findById(command.getDoctorId())).thenReturn(Optional.of(doctor));
+        when(patientRepository.findById(command.getPatientId())).thenReturn(Optional.of(patient));
+        doThrow(new DataIntegrityViolationException("duplicate", new ConstraintViolationException("duplicate", null,
+                "PUBLIC.UK_APPOINTMENT_DOCTOR_DATE_INDEX_2"))).when(appointmentRepository).flush();
+
+        assertThrows(DoctorOccupiedException.class, () -> appointmentService.save(command));
+
+        verify(slotCalendar, never()).occupy(anyInt(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testSave_DoctorOccupied_ThrowsDoctorOccupiedException() {
+        CreateAppointmentCommand command = CreateAppointmentCommand.builder()
+                .doctorId(1)
+                .patientId(1)
+                .date(LocalDateTime.now().plusDays(1))
+                .build();
+
+        Doctor doctor = Doctor.builder()
+                .id(1)
+                .firstName("Doctor")
+                .lastName("Lastname")
+                .build();
+
+        when(doctorRepository.findById(command.getDoctorId())).thenReturn(Optional.of(doctor));
+        when(appointmentRepository.existsByDoctorIdAndAppointmentDate(doctor.getId(), command.getDate())).thenReturn(true);
+
+        assertThrows(DoctorOccupiedException.class, () -> appointmentService.save(command));
+
+        verify(appointmentRepository).existsByDoctorIdAndAppointmentDate(doctor.getId(), command.getDate());
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+    }
+
+    @Test
+    void testSaveAll_MixedBatch_ResultsInPerItemResults() {
+        LocalDateTime date = LocalDateTime.now().plusDays(1);
+        LocalDateTime occupiedDate = LocalDateTime.now().plusDays(2);
+        List<CreateAppointmentCommand> commands = List.of(
+                CreateAppointmentCommand.builder().doctorId(1).patientId(1).date(date).build(),
+                CreateAppointmentCommand.builder().doctorId(1).patientId(2).date(date).build(),
+                CreateAppointmentCommand.builder().doctorId(1).patientId(1).date(occupiedDate).build(),
+                CreateAppointmentCommand.builder().doctorId(2).patientId(1).date(date).build(),
+                CreateAppointmentCommand.builder().doctorId(1).patientId(3).date(occupiedDate.plusHours(1)).build(),
+                CreateAppointmentCommand.builder().doctorId(1).patientId(1).date(LocalDateTime.now().minusDays(1)).build()
+        );
+        DoctorSlotView occupiedSlot = mock(DoctorSlotView.class);
+        when(occupiedSlot.getDoctorId()).thenReturn(1);
+        when(occupiedSlot.getAppointmentDate()).thenReturn(occupiedDate);
+
+        when(doctorRepository.findExistingIds(Set.of(1, 2))).thenReturn(Set.of(1));
+        when(patientRepository.findExistingIds(Set.of(1, 2, 3))).thenReturn(Set.of(1, 2));
+        when(appointmentRepository.findOccupiedSlots(eq(Set.of(1)), any())).thenReturn(List.of(occupiedSlot));
+        when(doctorRepository.getReferenceById(1)).thenReturn(Doctor.builder().id(1).build());
+        when(patientRepository.getReferenceById(1)).thenReturn(Patient.builder().id(1).build());
+        when(appointmentRepository.saveAll(anyList())).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+
+        List<BatchAppointmentResultDto> results = appointmentService.saveAll(commands);
+
+        assertEquals(commands.size(), results.size());
+        assertEquals(BatchItemStatus.CREATED, results.get(0).getStatus());
+        assertEquals(date, results.get(0).getAppointment().getAppointmentDate());
+        assertEquals(BatchItemStatus.REJECTED, results.get(1).getStatus());
+        assertEquals(BatchItemStatus.REJECTED, results.get(2).getStatus());
+        assertEquals("Doctor with id 2 not found", results.get(3).getError());
+        assertEquals("Patient with id 3 not found", results.get(4).getError());
+        assertEquals("date: DATE_NOT_FUTURE", results.get(5).getError());
+        verify(appointmentRepository).saveAll(List.of(Appointment.builder()
+                .doctor(Doctor.builder().id(1).build())
+                .patient(Patient.builder().id(1).build())
+                .appointmentDate(date)
+                .build()));
     }
 
     @Test
     void testFindById_ValidId_ReturnsAppointmentDto() {
         int id = 1;
-        Appointment appointment = Appointment.builder()
+        AppointmentDto appointment = AppointmentDto.builder()
                 .id(id)
                 .appointmentDate(LocalDateTime.now().plusDays(1))
-                .doctor(Doctor.builder().id(1).build())
-                .patient(Patient.builder().id(1).build())
+                .doctorId(1)
+                .patientId(1)
                 .build();
 
-        when(appointmentRepository.findById(id)).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.findDtoById(id)).thenReturn(Optional.of(appointment));
 
         AppointmentDto appointmentDto = appointmentService.findById(id);
 
         assertNotNull(appointmentDto);
         assertEquals(appointment.getId(), appointmentDto.getId());
         assertEquals(appointment.getAppointmentDate(), appointmentDto.getAppointmentDate());
-        assertEquals(appointment.getDoctor().getId(), appointmentDto.getDoctorId());
-        assertEquals(appointment.getPatient().getId(), appointmentDto.getPatientId());
+        assertEquals(appointment.getDoctorId(), appointmentDto.getDoctorId());
+        assertEquals(appointment.getPatientId(), appointmentDto.getPatientId());
     }
 
     @Test
     void testFindById_InvalidId_ThrowsAppointmentWithIdNotFoundException() {
         int id = 1;
-        when(appointmentRepository.findById(id)).thenReturn(Optional.empty());
+        when(appointmentRepository.findDtoById(id)).thenReturn(Optional.empty());
 
         assertThrows(AppointmentWithIdNotFoundException.class, () -> appointmentService.findById(id));
 
-        verify(appointmentRepository).findById(id);
+        verify(appointmentRepository).findDtoById(id);
     }
 
     @Test
@@ -167,6 +301,7 @@ class AppointmentServiceTest {
                 .disease(Disease.FLU)
                 .build();
 
+        when(appointmentRepository.findDoctorIdById(appointmentId)).thenReturn(Optional.of(1));
         when(appointmentRepository.findById(appointmentId)).thenReturn(Optional.of(appointment));
         when(doctorRepository.findById(command.getDoctorId())).thenReturn(Optional.of(newDoctor));
         when(patientRepository.findById(command.getPatientId())).thenReturn(Optional.of(newPatient));
@@ -196,9 +331,10 @@ class AppointmentServiceTest {
         Patient patient = Patient.builder()
                 .id(1)
                 .build();
+        LocalDateTime originalDate = LocalDateTime.now().plusDays(1);
         Appointment appointment = Appointment.builder()
                 .id(appointmentId)
-                .appointmentDate(LocalDateTime.now().plusDays(1))
+                .appointmentDate(originalDate)
                 .doctor(doctor)
                 .patient(patient)
                 .build();
@@ -207,6 +343,7 @@ class AppointmentServiceTest {
         UpdateAppointmentDateCommand command = new UpdateAppointmentDateCommand();
         command.setDateTime(LocalDateTime.now().plusDays(2));
 
+        when(appointmentRepository.findDoctorIdById(appointmentId)).thenReturn(Optional.of(doctor.getId()));
         when(appointmentRepository.findById(appointmentId)).thenReturn(Optional.of(appointment));
         when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
 
@@ -220,6 +357,30 @@ class AppointmentServiceTest {
         verify(appointmentRepository).save(appointmentArgumentCaptor.capture());
         Appointment updatedAppointment = appointmentArgumentCaptor.getValue();
         assertEquals(command.getDateTime(), updatedAppointment.getAppointmentDate());
+        verify(slotCalendar).move(doctor.getId(), originalDate, doctor.getId(), command.getDateTime());
+    }
+
+    @Test
+    void testUpdate_DoctorChangedBeforeLock_ThrowsObjectOptimisticLockingFailureException() {
+        int appointmentId = 1;
+        Appointment appointment = Appointment.builder()
+                .id(appointmentId)
+                .appointmentDate(LocalDateTime.now().plusDays(1))
+                .doctor(Doctor.builder().id(2).build())
+                .patient(Patient.builder().id(1).build())
+                .build();
+        FullUpdateAppointmentCommand command = FullUpdateAppointmentCommand.builder()
+                .appointmentDate(LocalDateTime.now().plusDays(2))
+                .build();
+
+        when(appointmentRepository.findDoctorIdById(appointmentId)).thenReturn(Optional.of(1));
+        when(appointmentRepository.findById(appointmentId)).thenReturn(Optional.of(appointment));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> appointmentService.update(appointmentId, command));
+
+        verify(bookingLocks).lockUntilCompletion(List.of(1));
+        verify(appointmentRepository, never()).save(any(Appointment.class));
     }
 
     @Test
@@ -1,5 +1,8 @@
 package com.clinic.project1.service;
 
+import com.clinic.project1.cache.DoctorCache;
+import com.clinic.project1.cache.JsonResponseCache;
+import com.clinic.project1.common.Disease;
 import com.clinic.project1.common.Specialization;
 import com.clinic.project1.exception.DoctorWithIdNotFoundException;
 import com.clinic.project1.model.Doctor;
@@ -7,7 +10,13 @@ import com.clinic.project1.model.command.create.CreateDoctorCommand;
 import com.clinic.project1.model.command.update.FullUpdateDoctorCommand;
 import com.clinic.project1.model.command.update.UpdateDoctorSpecializationCommand;
 import com.clinic.project1.model.dto.DoctorDto;
+import com.clinic.project1.model.dto.DoctorMatchDto;
+import com.clinic.project1.model.projection.DoctorLoadView;
+import com.clinic.project1.model.projection.DoctorSpecializationView;
+import com.clinic.project1.model.projection.DoctorView;
 import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.schedule.SpecializationIndex;
+import com.clinic.project1.search.DoctorNameIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -15,14 +24,21 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +47,18 @@ class DoctorServiceTest {
     @Mock
     private DoctorRepository doctorRepository;
 
+    @Mock
+    private SpecializationIndex specializationIndex;
+
+    @Mock
+    private DoctorCache doctorCache;
+
+    @Mock
+    private JsonResponseCache jsonResponseCache;
+
+    @Mock
+    private DoctorNameIndex doctorNameIndex;
+
     @InjectMocks
     private DoctorService doctorService;
 
@@ -66,6 +94,7 @@ class DoctorServiceTest {
         assertEquals(command.getFirstName(), newDoctor.getFirstName());
         assertEquals(command.getLastName(), newDoctor.getLastName());
         assertEquals(command.getSpecializationSet(), newDoctor.getSpecializations());
+        verify(specializationIndex).put(savedDoctor.getId(), savedDoctor.getSpecializations());
     }
 
     @Test
@@ -134,6 +163,7 @@ class DoctorServiceTest {
         assertEquals(command.getFirstName(), updatedDoctor.getFirstName());
         assertEquals(command.getLastName(), updatedDoctor.getLastName());
         assertEquals(command.getSpecializations(), updatedDoctor.getSpecializations());
+        verify(doctorCache).evict(doctorId);
     }
 
     @Test
@@ -160,6 +190,7 @@ class DoctorServiceTest {
         assertEquals(existingDoctor.getFirstName(), updatedDoctor.getFirstName());
         assertEquals(existingDoctor.getLastName(), updatedDoctor.getLastName());
         assertEquals(command.getSpecializations(), updatedDoctor.getSpecializations());
+        verify(doctorCache).evict(doctorId);
     }
 
     @Test
@@ -169,32 +200,108 @@ class DoctorServiceTest {
         doctorService.deleteById(doctorId);
 
         verify(doctorRepository).deleteById(doctorId);
+        verify(specializationIndex).remove(doctorId);
+        verify(doctorCache).evict(doctorId);
     }
 
     @Test
-    void testFindAll_ReturnsListOfDoctorDto() {
-        List<Doctor> doctors = Arrays.asList(
-                Doctor.builder()
-                        .id(1)
-                        .firstName("John")
-                        .lastName("Doe")
-                        .specializations(Set.of(Specialization.PEDIATRICS))
-                        .build(),
-                Doctor.builder()
-                        .id(2)
-                        .firstName("Jane")
-                        .lastName("Smith")
-                        .specializations(Set.of(Specialization.FAMILY_MEDICINE))
-                        .build()
+    void testFindAll_ReturnsSliceOfDoctorDto() {
+        List<DoctorView> doctors = Arrays.asList(
+                doctorView(1, "John", "Doe"),
+                doctorView(2, "Jane", "Smith")
         );
-        when(doctorRepository.findAll()).thenReturn(doctors);
+        when(doctorRepository.findViewsByIdGreaterThan(eq(0), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(doctors, PageRequest.of(0, 2), true));
+        when(doctorRepository.findSpecializationsByDoctorIdIn(List.of(1, 2))).thenReturn(List.of(
+                doctorSpecialization(1, Specialization.PEDIATRICS),
+                doctorSpecialization(2, Specialization.FAMILY_MEDICINE),
+                doctorSpecialization(2, Specialization.PULMONOLOGY)
+        ));
 
-        List<DoctorDto> doctorDtos = doctorService.findAll();
+        Slice<DoctorDto> doctorDtos = doctorService.findAll(0, 2);
 
         assertNotNull(doctorDtos);
-        assertEquals(doctors.size(), doctorDtos.size());
-        verify(doctorRepository).findAll();
+        assertEquals(doctors.size(), doctorDtos.getNumberOfElements());
+        assertTrue(doctorDtos.hasNext());
+        assertEquals(Set.of(Specialization.PEDIATRICS), doctorDtos.getContent().get(0).getSpecializations());
+        assertEquals(Set.of(Specialization.FAMILY_MEDICINE, Specialization.PULMONOLOGY),
+                doctorDtos.getContent().get(1).getSpecializations());
+        verify(doctorRepository).findViewsByIdGreaterThan(eq(0), any(Pageable.class));
+    }
+
+    @Test
+    void testFindMatching_ReturnsQualifiedDoctorsLeastLoadedFirst() {
+        when(specializationIndex.doctorsWith(Specialization.PULMONOLOGY)).thenReturn(IntStream.of(1, 2, 3));
+        when(doctorRepository.findLoadsByIdIn(eq(List.of(1, 2, 3)), any(LocalDateTime.class))).thenReturn(List.of(
+                doctorLoad(1, 4, 3),
+                doctorLoad(2, 1, 0),
+                doctorLoad(3, 0, 1)
+        ));
+
+        List<DoctorMatchDto> matches = doctorService.findMatching(Disease.PNEUMONIA, 2);
+
+        assertEquals(List.of(2, 3), matches.stream().map(DoctorMatchDto::getId).toList());
+        assertEquals(1, matches.get(0).getPatientCount());
+        assertEquals(1, matches.get(1).getUpcomingAppointmentCount());
+    }
+
+    @Test
+    void testFindMatching_NoQualifiedDoctors_ResultsInEmptyListWithoutQuery() {
+        when(specializationIndex.doctorsWith(Specialization.PEDIATRICS)).thenReturn(IntStream.empty());
+
+        assertTrue(doctorService.findMatching(Disease.MUMPS, 10).isEmpty());
+        verifyNoInteractions(doctorRepository);
     }
 
+    private static DoctorLoadView doctorLoad(int id, long patientCount, long upcomingAppointmentCount) {
+        return new DoctorLoadView() {
+            public int getId() {
+                return id;
+            }
+
+            public String getFirstName() {
+                return "Doctor";
+            }
+
+            public String getLastName() {
+                return "Lastname";
+            }
+
+            public long getPatientCount() {
+                return patientCount;
+            }
+
+            public long getUpcomingAppointmentCount() {
+                return upcomingAppointmentCount;
+            }
+        };
+    }
 
+    private static DoctorView doctorView(int id, String firstName, String lastName) {
+        return new DoctorView() {
+            public int getId() {
+                return id;
+            }
+
+            public String getFirstName() {
+                return firstName;
+            }
+
+            public String getLastName() {
+                return lastName;
+            }
+        };
+    }
+
+    private static DoctorSpecializationView doctorSpecialization(int doctorId, Specialization specialization) {
+        return new DoctorSpecializationView() {
+            public int getDoctorId() {
+                return doctorId;
+            }
+
+            public Specialization getSpecialization() {
+                return specialization;
+            }
+        };
+    }
 }
@@ -0,0 +1,190 @@
+package com.clinic.project1.service;
+
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.exception.DoctorOccupiedException;
+import com.clinic.project1.model.Appointment;
+import com.clinic.project1.model.command.create.CreateAppointmentCommand;
+import com.clinic.project1.model.command.create.CreateDoctorCommand;
+import com.clinic.project1.model.command.create.CreatePatientCommand;
+import com.clinic.project1.model.command.update.FullUpdateAppointmentCommand;
+import com.clinic.project1.repository.AppointmentRepository;
+import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.repository.PatientRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:doublebooking",
+        "spring.jpa.properties.hibernate.cache.region_prefix=doublebooking"})
+@ActiveProfiles("test")
+class DoubleBookingStressTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Test
+    void testSave_ConcurrentBookingsForSameSlot_OnlyOneSucceeds() throws Exception {
+        int doctorId = saveDoctor();
+        int patientId = savePatient(doctorId);
+        LocalDateTime date = LocalDateTime.now().plusDays(7).withNano(0);
+
+        List<Future<Object>> results = runConcurrently(THREADS, thread -> () -> appointmentService.save(
+                CreateAppointmentCommand.builder().doctorId(doctorId).patientId(patientId).date(date).build()));
+
+        int created = 0;
+        for (Future<Object> result : results) {
+            try {
+                result.get();
+                created++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(DoctorOccupiedException.class, e.getCause());
+            }
+        }
+        assertEquals(1, created);
+        assertEquals(1, appointmentRepository.findOccupiedSlots(List.of(doctorId), List.of(date)).size());
+    }
+
+    @Test
+    void testSave_ConcurrentBookingsAcrossDoctors_AllSucceed() throws Exception {
+        int doctorCount = 8;
+        int bookingsPerThread = 10;
+        List<Integer> doctorIds = new ArrayList<>();
+        for (int i = 0; i < doctorCount; i++) {
+            doctorIds.add(saveDoctor());
+        }
+        int patientId = savePatient(doctorIds.get(0));
+        LocalDateTime firstSlot = LocalDateTime.now().plusDays(30).withNano(0);
+
+        List<Future<Object>> results = runConcurrently(THREADS, thread -> () -> {
+            int doctorId = doctorIds.get(thread % doctorCount);
+            for (int i = 0; i < bookingsPerThread; i++) {
+                appointmentService.save(CreateAppointmentCommand.builder()
+                        .doctorId(doctorId)
+                        .patientId(patientId)
+                        .date(firstSlot.plusMinutes((long) (thread / doctorCount) * bookingsPerThread + i))
+                        .build());
+            }
+            return null;
+        });
+        for (Future<Object> result : results) {
+            result.get();
+        }
+
+        assertEquals((long) THREADS * bookingsPerThread,
+                appointmentRepository.findSlotsFrom(firstSlot).stream()
+                        .filter(slot -> doctorIds.contains(slot.getDoctorId()))
+                        .count());
+    }
+
+    @Test
+    void testUpdate_RescheduleOntoOccupiedSlot_ThrowsDoctorOccupiedException() {
+        int doctorId = saveDoctor();
+        int patientId = savePatient(doctorId);
+        LocalDateTime occupied = LocalDateTime.now().plusDays(21).withNano(0);
+        appointmentService.save(CreateAppointmentCommand.builder()
+                .doctorId(doctorId).patientId(patientId).date(occupied).build());
+        int movedId = appointmentService.save(CreateAppointmentCommand.builder()
+                .doctorId(doctorId).patientId(patientId).date(occupied.plusHours(1)).build()).getId();
+
+        assertThrows(DoctorOccupiedException.class, () -> appointmentService.update(movedId,
+                FullUpdateAppointmentCommand.builder().appointmentDate(occupied).build()));
+    }
+
+    @Test
+    void testSaveAndFlush_DuplicateDoctorAndDate_RejectedByUniqueConstraint() {
+        int doctorId = saveDoctor();
+        int patientId = savePatient(doctorId);
+        LocalDateTime date = LocalDateTime.now().plusDays(14).withNano(0);
+        appointmentRepository.saveAndFlush(Appointment.builder()
+                .doctor(doctorRepository.getReferenceById(doctorId))
+                .patient(patientRepository.getReferenceById(patientId))
+                .appointmentDate(date)
+                .build());
+
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> appointmentRepository.saveAndFlush(Appointment.builder()
+                        .doctor(doctorRepository.getReferenceById(doctorId))
+                        .patient(patientRepository.getReferenceById(patientId))
+                        .appointmentDate(date)
+                        .build()));
+        ConstraintViolationException violation = assertInstanceOf(ConstraintViolationException.class,
+                exception.getCause());
+        assertTrue(violation.getConstraintName().toLowerCase().contains(Appointment.DOCTOR_DATE_CONSTRAINT));
+    }
+
+    private List<Future<Object>> runConcurrently(int threads, TaskFactory taskFactory) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> results = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            Callable<Object> task = taskFactory.create(thread);
+            results.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return results;
+    }
+
+    private int saveDoctor() {
+        return doctorService.save(CreateDoctorCommand.builder()
+                .firstName("Busy")
+                .lastName("Doctor")
+                .specializationSet(Set.of(Specialization.FAMILY_MEDICINE))
+                .build()).getId();
+    }
+
+    private int savePatient(int doctorId) {
+        return patientService.save(CreatePatientCommand.builder()
+                .firstName("Regular")
+                .lastName("Patient")
+                .disease(Disease.FLU)
+                .doctorId(doctorId)
+                .build()).getId();
+    }
+
+    private interface TaskFactory {
+        Callable<Object> create(int thread);
+    }
+}
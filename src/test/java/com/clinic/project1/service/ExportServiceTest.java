@@ -0,0 +1,116 @@
+package com.clinic.project1.service;
+
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.mapper.DoctorMapper;
+import com.clinic.project1.mapper.PatientMapper;
+import com.clinic.project1.model.Doctor;
+import com.clinic.project1.model.Patient;
+import com.clinic.project1.model.dto.AppointmentDto;
+import com.clinic.project1.repository.AppointmentRepository;
+import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.repository.PatientRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ExportService(appointmentRepository, patientRepository, doctorRepository,
+                entityManager, objectMapper);
+    }
+
+    @Test
+    void testExportAppointments_WritesOneProjectedDtoPerLine() throws Exception {
+        List<AppointmentDto> appointments = List.of(
+                new AppointmentDto(1, LocalDateTime.of(2030, 1, 1, 10, 0), 1, 2),
+                new AppointmentDto(2, LocalDateTime.of(2030, 1, 1, 11, 0), 1, 2)
+        );
+        when(appointmentRepository.streamAllDto()).thenReturn(appointments.stream());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportService.exportAppointments(outputStream);
+
+        List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(appointments.size(), lines.size());
+        for (int i = 0; i < appointments.size(); i++) {
+            assertEquals(objectMapper.writeValueAsString(appointments.get(i)), lines.get(i));
+        }
+    }
+
+    @Test
+    void testExportPatients_WritesOneMappedDtoPerLine() throws Exception {
+        Patient patient = Patient.builder()
+                .id(1)
+                .firstName("Name")
+                .lastName("LastName")
+                .disease(Disease.FLU)
+                .doctor(Doctor.builder().id(3).build())
+                .build();
+        when(patientRepository.streamAll()).thenReturn(Stream.of(patient));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportService.exportPatients(outputStream);
+
+        assertEquals(objectMapper.writeValueAsString(PatientMapper.mapToDto(patient)) + "\n",
+                outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testExportDoctors_LargeTable_ClearsPersistenceContextPeriodically() throws Exception {
+        List<Doctor> doctors = IntStream.rangeClosed(1, 1200)
+                .mapToObj(id -> Doctor.builder()
+                        .id(id)
+                        .firstName("Doctor")
+                        .lastName("Lastname")
+                        .specializations(Set.of(Specialization.PEDIATRICS))
+                        .build())
+                .toList();
+        when(doctorRepository.streamAll()).thenReturn(doctors.stream());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportService.exportDoctors(outputStream);
+
+        List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(doctors.size(), lines.size());
+        assertEquals(objectMapper.writeValueAsString(DoctorMapper.mapToDto(doctors.get(0))), lines.get(0));
+        verify(entityManager, times(2)).clear();
+    }
+}
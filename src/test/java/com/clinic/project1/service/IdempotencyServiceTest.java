@@ -0,0 +1,149 @@
+package com.clinic.project1.service;
+
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.exception.IdempotencyKeyReusedException;
+import com.clinic.project1.model.Doctor;
+import com.clinic.project1.model.command.create.CreatePatientCommand;
+import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.repository.IdempotencyRecordRepository;
+import com.clinic.project1.repository.PatientRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:idempotency",
+        "spring.jpa.properties.hibernate.cache.region_prefix=idempotency"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testSavePatient_RetriedWithSameKey_ReturnsStoredResponseWithoutSecondPatient() throws Exception {
+        Doctor doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Doctor")
+                .lastName("Lastname")
+                .specializations(Set.of(Specialization.FAMILY_MEDICINE))
+                .build());
+        CreatePatientCommand command = CreatePatientCommand.builder()
+                .firstName("Patient")
+                .lastName("Lastname")
+                .disease(Disease.FLU)
+                .doctorId(doctor.getId())
+                .build();
+        long patientsBefore = patientRepository.count();
+
+        String first = mockMvc.perform(createPatient(command, "retry-1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String replayed = mockMvc.perform(createPatient(command, "retry-1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, replayed);
+        assertEquals(patientsBefore + 1, patientRepository.count());
+        assertTrue(idempotencyRecordRepository.count() > 0);
+    }
+
+    @Test
+    void testExecute_ConcurrentDuplicate_WaitsForFirstResultInsteadOfRunningAgain() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<byte[]> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("test", "concurrent", Map.of("n", 1), () -> {
+                    runs.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return Map.of("id", 7);
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<byte[]> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("test", "concurrent", Map.of("n", 1), () -> {
+                    runs.incrementAndGet();
+                    return Map.of("id", 8);
+                }));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+
+        release.countDown();
+
+        assertArrayEquals(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void testExecute_KeyReusedForDifferentRequest_Rejected() {
+        idempotencyService.execute("test", "reused", Map.of("n", 1), () -> Map.of("id", 1));
+
+        assertThrows(IdempotencyKeyReusedException.class, () ->
+                idempotencyService.execute("test", "reused", Map.of("n", 2), () -> Map.of("id", 2)));
+    }
+
+    @Test
+    void testExecute_FailedAction_NotStoredSoRetryRunsAgain() {
+        assertThrows(IllegalStateException.class, () ->
+                idempotencyService.execute("test", "failing", Map.of("n", 1), () -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        byte[] retried = idempotencyService.execute("test", "failing", Map.of("n", 1), () -> Map.of("id", 3));
+
+        assertEquals("{\"id\":3}", new String(retried));
+    }
+
+    private MockHttpServletRequestBuilder createPatient(CreatePatientCommand command, String key) throws Exception {
+        return post("/api/v1/patients")
+                .header(IdempotencyService.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(command));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.clinic.project1.service;
+
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.model.Doctor;
+import com.clinic.project1.model.Patient;
+import com.clinic.project1.model.dto.ImportReportDto;
+import com.clinic.project1.model.dto.RejectedRowDto;
+import com.clinic.project1.model.projection.DoctorSpecializationView;
+import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.repository.PatientRepository;
+import com.clinic.project1.schedule.SpecializationIndex;
+import com.clinic.project1.search.DoctorNameIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:import",
+        "spring.jpa.properties.hibernate.cache.region_prefix=import",
+        "clinic.import.batch-size=3"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ImportServiceTest {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private SpecializationIndex specializationIndex;
+
+    @Autowired
+    private DoctorNameIndex doctorNameIndex;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testImportDoctors_ValidRows_InsertedWithSpecializationsAndIndexed() throws Exception {
+        long doctorsBefore = doctorRepository.count();
+
+        mockMvc.perform(post("/api/v1/doctors/import")
+                        .contentType(ImportService.CSV_MEDIA_TYPE)
+                        .content("""
+                                firstName,lastName,specializations
+                                Imported,Wronski,FAMILY_MEDICINE;PEDIATRICS
+                                Imported,Zielinski,PULMONOLOGY
+                                lower,Case,PEDIATRICS
+                                Imported,Nowicki,
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.rejected", is(2)))
+                .andExpect(jsonPath("$.rejectedRows[0].line", is(4)))
+                .andExpect(jsonPath("$.rejectedRows[0].error", is("firstName: PATTERN_MISMATCH [A-Z][a-z]{1,19}")))
+                .andExpect(jsonPath("$.rejectedRows[1].line", is(5)))
+                .andExpect(jsonPath("$.rejectedRows[1].error", is("specializationSet: EMPTY_VALUE")));
+
+        assertEquals(doctorsBefore + 2, doctorRepository.count());
+        int doctorId = doctorNameIndex.search("wronski", 1).get(0).getId();
+        assertEquals(Set.of(Specialization.FAMILY_MEDICINE, Specialization.PEDIATRICS),
+                doctorRepository.findSpecializationsByDoctorIdIn(List.of(doctorId)).stream()
+                        .map(DoctorSpecializationView::getSpecialization)
+                        .collect(Collectors.toSet()));
+        assertEquals(Set.of(Specialization.FAMILY_MEDICINE, Specialization.PEDIATRICS),
+                specializationIndex.specializationsOf(doctorId));
+    }
+
+    @Test
+    void testImportPatients_AcrossChunks_InvalidRowsReportedWithReasons() {
+        Doctor familyDoctor = doctorRepository.save(Doctor.builder()
+                .firstName("Family")
+                .lastName("Doctor")
+                .specializations(Set.of(Specialization.FAMILY_MEDICINE))
+                .build());
+        long patientsBefore = patientRepository.count();
+        String csv = "firstName,lastName,disease,doctorId\n"
+                + IntStream.range(0, 7)
+                .mapToObj(i -> "Patient,Imported,FLU," + familyDoctor.getId())
+                .collect(Collectors.joining("\n")) + "\n"
+                + "Patient,Imported,MEASLES," + familyDoctor.getId() + "\n"
+                + "Patient,Imported,FLU,999\n"
+                + "Patient,Imported,PLAGUE," + familyDoctor.getId() + "\n"
+                + "Patient,Imported,FLU\n";
+
+        ImportReportDto report = importService.importPatients(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(7, report.getImported());
+        assertEquals(4, report.getRejected());
+        assertEquals(List.of(9L, 10L, 11L, 12L), report.getRejectedRows().stream().map(RejectedRowDto::getLine).toList());
+        assertEquals(List.of(
+                        "Doctor with id " + familyDoctor.getId()
+                                + " does not have the required specialization for disease MEASLES",
+                        "Doctor with id 999 not found",
+                        "Unknown disease PLAGUE",
+                        "Expected 4 columns, found 3"),
+                report.getRejectedRows().stream().map(RejectedRowDto::getError).toList());
+        assertEquals(patientsBefore + 7, patientRepository.count());
+    }
+
+    @Test
+    void testImportPatients_ChunkFailsToInsert_ChunkRowsRejectedAndOtherChunksImported() {
+        Doctor doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Chunk")
+                .lastName("Doctor")
+                .specializations(Set.of(Specialization.FAMILY_MEDICINE))
+                .build());
+        long patientsBefore = patientRepository.count();
+        doCallRealMethod()
+                .doThrow(new DataIntegrityViolationException("Insert failed"))
+                .doCallRealMethod()
+                .when(jdbcTemplate).batchUpdate(startsWith("insert into patient"), any(BatchPreparedStatementSetter.class));
+        String csv = "firstName,lastName,disease,doctorId\n"
+                + IntStream.range(0, 9)
+                .mapToObj(i -> "Patient,Chunked,FLU," + doctor.getId())
+                .collect(Collectors.joining("\n"));
+
+        ImportReportDto report = importService.importPatients(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(6, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertEquals(List.of(5L, 6L, 7L), report.getRejectedRows().stream().map(RejectedRowDto::getLine).toList());
+        assertEquals("Chunk not imported: Insert failed", report.getRejectedRows().get(0).getError());
+        assertEquals(patientsBefore + 6, patientRepository.count());
+    }
+
+    @Test
+    void testImportPatients_ThenSavedThroughJpa_IdsDoNotCollide() {
+        Doctor doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Sequence")
+                .lastName("Doctor")
+                .specializations(Set.of(Specialization.PULMONOLOGY))
+                .build());
+        importService.importPatients(new ByteArrayInputStream(("firstName,lastName,disease,doctorId\n"
+                + "Imported,Patient,BRONCHITIS," + doctor.getId() + "\n").getBytes(StandardCharsets.UTF_8)));
+
+        patientRepository.save(Patient.builder()
+                .firstName("Saved")
+                .lastName("Patient")
+                .disease(Disease.PNEUMONIA)
+                .doctor(doctor)
+                .build());
+
+        assertEquals(2, patientRepository.findAll().stream()
+                .filter(patient -> patient.getDoctor().getId() == doctor.getId())
+                .count());
+    }
+}
@@ -1,5 +1,6 @@
 package com.clinic.project1.service;
 
+import com.clinic.project1.cache.JsonResponseCache;
 import com.clinic.project1.common.Disease;
 import com.clinic.project1.common.Specialization;
 import com.clinic.project1.exception.PatientWithIdNotFoundException;
@@ -11,6 +12,7 @@ import com.clinic.project1.model.command.update.UpdatePatientDiseaseCommand;
 import com.clinic.project1.model.dto.PatientDto;
 import com.clinic.project1.repository.DoctorRepository;
 import com.clinic.project1.repository.PatientRepository;
+import com.clinic.project1.search.PatientNameIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -18,6 +20,10 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +31,7 @@ import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,41 +47,41 @@ class PatientServiceTest {
     @Mock
     private DoctorRepository doctorRepository;
 
+    @Mock
+    private JsonResponseCache jsonResponseCache;
+
+    @Mock
+    private PatientNameIndex patientNameIndex;
+
     @Captor
     private ArgumentCaptor<Patient> patientArgumentCaptor;
 
     @Test
-    void testFindAll_ReturnListOfPatientDtos() {
-        Doctor doctor = Doctor.builder()
-                .id(1)
-                .firstName("Doctor")
-                .lastName("Lastname")
-                .specializations(Set.of(Specialization.PULMONOLOGY))
-                .build();
-
-        List<Patient> patients = List.of(
-                Patient.builder()
+    void testFindAll_ReturnSliceOfPatientDtos() {
+        List<PatientDto> patients = List.of(
+                PatientDto.builder()
                         .id(1)
                         .firstName("Patient1")
                         .lastName("LastName1")
                         .disease(Disease.BRONCHITIS)
-                        .doctor(doctor)
+                        .doctorId(1)
                         .build(),
-                Patient.builder()
+                PatientDto.builder()
                         .id(2)
                         .firstName("Patient2")
                         .lastName("LastName2")
                         .disease(Disease.FLU)
-                        .doctor(doctor)
+                        .doctorId(1)
                         .build()
         );
-        when(patientRepository.findAll()).thenReturn(patients);
+        when(patientRepository.findDtoByIdGreaterThan(eq(0), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(patients, PageRequest.of(0, 50), false));
 
-        List<PatientDto> patientDtoList = patientService.findAll();
+        Slice<PatientDto> patientDtoSlice = patientService.findAll(0, 50);
 
-        assertNotNull(patientDtoList);
-        assertEquals(patients.size(), patientDtoList.size());
-        verify(patientRepository).findAll();
+        assertNotNull(patientDtoSlice);
+        assertEquals(patients.size(), patientDtoSlice.getNumberOfElements());
+        verify(patientRepository).findDtoByIdGreaterThan(eq(0), any(Pageable.class));
     }
 
     @Test
@@ -109,15 +116,15 @@ class PatientServiceTest {
     @Test
     void testFindById_ValidId_ReturnPatientDto() {
         int id = 1;
-        Patient patient = Patient.builder()
+        PatientDto patient = PatientDto.builder()
                 .id(id)
                 .firstName("Name")
                 .lastName("LastName")
                 .disease(Disease.BRONCHITIS)
-                .doctor(Doctor.builder().id(1).build())
+                .doctorId(1)
                 .build();
 
-        when(patientRepository.findById(id)).thenReturn(Optional.of(patient));
+        when(patientRepository.findDtoById(id)).thenReturn(Optional.of(patient));
 
         PatientDto patientDto = patientService.findById(id);
 
@@ -126,14 +133,14 @@ class PatientServiceTest {
         assertEquals(patient.getFirstName(), patientDto.getFirstName());
         assertEquals(patient.getLastName(), patientDto.getLastName());
         assertEquals(patient.getDisease(), patientDto.getDisease());
-        assertEquals(patient.getDoctor().getId(), patientDto.getDoctorId());
+        assertEquals(patient.getDoctorId(), patientDto.getDoctorId());
     }
 
     @Test
     void testFindById_PatientNotFound_ResultsInPatientWithIdNotFoundException() {
         int id = 1;
         String exceptionMsg = "Patient with id " + id + " not found";
-        when(patientRepository.findById(id)).thenReturn(Optional.empty());
+        when(patientRepository.findDtoById(id)).thenReturn(Optional.empty());
 
         PatientWithIdNotFoundException exception = assertThrows(
                 PatientWithIdNotFoundException.class,
@@ -142,7 +149,7 @@ class PatientServiceTest {
 
         assertEquals(exceptionMsg, exception.getMessage());
 
-        verify(patientRepository).findById(id);
+        verify(patientRepository).findDtoById(id);
     }
 
     @Test
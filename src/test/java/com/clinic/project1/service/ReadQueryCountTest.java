@@ -0,0 +1,153 @@
+package com.clinic.project1.service;
+
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.model.Appointment;
+import com.clinic.project1.model.Doctor;
+import com.clinic.project1.model.Patient;
+import com.clinic.project1.model.dto.AppointmentDto;
+import com.clinic.project1.repository.AppointmentRepository;
+import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.repository.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:readquerycount",
+        "spring.jpa.properties.hibernate.cache.region_prefix=readquerycount",
+        "clinic.outbox.interval=PT1H"})
+@ActiveProfiles("test")
+class ReadQueryCountTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        if (doctorRepository.count() == 0) {
+            List<Doctor> doctors = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                doctors.add(doctorRepository.save(Doctor.builder()
+                        .firstName("Doctor")
+                        .lastName("Lastname")
+                        .specializations(Set.of(Specialization.FAMILY_MEDICINE, Specialization.PULMONOLOGY))
+                        .build()));
+            }
+            for (int i = 0; i < 20; i++) {
+                Doctor doctor = doctors.get(i % doctors.size());
+                Patient patient = patientRepository.save(Patient.builder()
+                        .firstName("Patient")
+                        .lastName("Lastname")
+                        .disease(Disease.FLU)
+                        .doctor(doctor)
+                        .build());
+                appointmentRepository.save(Appointment.builder()
+                        .appointmentDate(LocalDateTime.now().plusDays(i + 1))
+                        .doctor(doctor)
+                        .patient(patient)
+                        .build());
+            }
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void testFindAllAppointments_IssuesSingleStatementWithoutEntityLoads() {
+        assertEquals(20, appointmentService.findAll(0, 50).getNumberOfElements());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindAllPatients_IssuesSingleStatementWithoutEntityLoads() {
+        assertEquals(20, patientService.findAll(0, 50).getNumberOfElements());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindAllDoctors_IssuesTwoStatementsWithoutEntityLoads() {
+        assertEquals(5, doctorService.findAll(0, 50).getNumberOfElements());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void testFindByIdAppointment_IssuesSingleStatementWithoutEntityLoads() {
+        int id = appointmentService.findAll(0, 1).getContent().get(0).getId();
+        statistics.clear();
+
+        appointmentService.findById(id);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindByDoctor_ReturnsOnlyTheWindowInDateOrder() {
+        int doctorId = doctorRepository.findAll(Sort.by("id")).get(0).getId();
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.plusDays(12);
+        statistics.clear();
+
+        Slice<AppointmentDto> firstPage = appointmentService.findByDoctor(doctorId, from, to, null, 2);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, firstPage.getNumberOfElements());
+        assertTrue(firstPage.hasNext());
+        assertTrue(firstPage.getContent().get(0).getAppointmentDate()
+                .isBefore(firstPage.getContent().get(1).getAppointmentDate()));
+
+        LocalDateTime after = firstPage.getContent().get(1).getAppointmentDate();
+        Slice<AppointmentDto> lastPage = appointmentService.findByDoctor(doctorId, from, to, after, 2);
+
+        assertEquals(1, lastPage.getNumberOfElements());
+        assertFalse(lastPage.hasNext());
+        assertTrue(lastPage.getContent().get(0).getAppointmentDate().isAfter(after));
+        assertTrue(lastPage.getContent().get(0).getAppointmentDate().isBefore(to));
+        assertEquals(doctorId, lastPage.getContent().get(0).getDoctorId());
+    }
+}
@@ -0,0 +1,131 @@
+package com.clinic.project1.service;
+
+import com.clinic.project1.cache.DoctorCache;
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.datasource.ReadWriteRoutingDataSource;
+import com.clinic.project1.model.Doctor;
+import com.clinic.project1.model.Patient;
+import com.clinic.project1.model.command.update.FullPatientUpdateCommand;
+import com.clinic.project1.model.command.update.FullUpdateDoctorCommand;
+import com.clinic.project1.model.dto.PatientDto;
+import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:routingprimary",
+        "clinic.datasource.replica.url=jdbc:h2:mem:routingreplica",
+        "clinic.datasource.replica.max-lag=PT1M",
+        "spring.jpa.properties.hibernate.cache.region_prefix=routing"})
+@ActiveProfiles("test")
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private DoctorCache doctorCache;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Test
+    void testFindById_ReadOnlyTransaction_ResultsInReplicaBeingRead() {
+        Doctor doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Routing")
+                .lastName("Doctor")
+                .specializations(Set.of(Specialization.FAMILY_MEDICINE))
+                .build());
+        Patient patient = patientRepository.save(Patient.builder()
+                .firstName("Routing")
+                .lastName("Replicated")
+                .disease(Disease.FLU)
+                .doctor(doctor)
+                .build());
+        replicate();
+
+        FullPatientUpdateCommand command = new FullPatientUpdateCommand();
+        command.setLastName("Primary");
+        assertEquals("Primary", patientService.update(patient.getId(), command).getLastName());
+
+        assertEquals("Replicated", patientService.findById(patient.getId()).getLastName());
+        assertEquals("Primary", ReadWriteRoutingDataSource.onPrimary(
+                () -> patientService.findById(patient.getId())).getLastName());
+    }
+
+    @Test
+    void testFindAll_ReplicaBehindLastChange_ResultsInNoChangeStamp() {
+        Doctor doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Listed")
+                .lastName("Doctor")
+                .specializations(Set.of(Specialization.FAMILY_MEDICINE))
+                .build());
+        Patient patient = patientRepository.save(Patient.builder()
+                .firstName("Listed")
+                .lastName("Replicated")
+                .disease(Disease.FLU)
+                .doctor(doctor)
+                .build());
+        replicate();
+
+        FullPatientUpdateCommand command = new FullPatientUpdateCommand();
+        command.setLastName("Primary");
+        patientService.update(patient.getId(), command);
+
+        assertEquals(List.of("Replicated"), patientService.findAll(patient.getId() - 1, 1).getContent().stream()
+                .map(PatientDto::getLastName)
+                .toList());
+        assertTrue(patientService.changeStamp().isEmpty());
+    }
+
+    @Test
+    void testFindById_DoctorNotCached_ResultsInPrimaryBeingRead() {
+        Doctor doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Cached")
+                .lastName("Replicated")
+                .specializations(Set.of(Specialization.FAMILY_MEDICINE))
+                .build());
+        replicate();
+
+        doctorService.update(doctor.getId(), FullUpdateDoctorCommand.builder().lastName("Primary").build());
+        doctorCache.evict(doctor.getId());
+
+        assertEquals("Primary", doctorService.findById(doctor.getId()).getLastName());
+        assertEquals("Primary", doctorService.findById(doctor.getId()).getLastName());
+    }
+
+    // Stands in for replication: copies the primary database into the replica as it is at this point.
+    private void replicate() {
+        String script = "target/routing-replica.sql";
+        new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + script + "'");
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        replica.execute("RUNSCRIPT FROM '" + script + "'");
+    }
+}
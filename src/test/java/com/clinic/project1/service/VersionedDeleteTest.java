@@ -0,0 +1,88 @@
+package com.clinic.project1.service;
+
+import com.clinic.project1.common.Disease;
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.model.Doctor;
+import com.clinic.project1.model.Patient;
+import com.clinic.project1.model.command.update.FullPatientUpdateCommand;
+import com.clinic.project1.model.command.update.FullUpdateDoctorCommand;
+import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:versioneddelete",
+        "spring.jpa.properties.hibernate.cache.region_prefix=versioneddelete"})
+@ActiveProfiles("test")
+class VersionedDeleteTest {
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Test
+    void testDeleteById_DoctorAndPatient_ResultsInRowsDeleted() {
+        Doctor doctor = saveDoctor();
+        Patient patient = savePatient(doctor);
+
+        patientService.deleteById(patient.getId());
+        doctorService.deleteById(doctor.getId());
+
+        assertFalse(patientRepository.existsById(patient.getId()));
+        assertFalse(doctorRepository.existsById(doctor.getId()));
+    }
+
+    @Test
+    void testDelete_StalePatientVersion_ResultsInOptimisticLockingFailure() {
+        Patient stale = savePatient(saveDoctor());
+        FullPatientUpdateCommand command = new FullPatientUpdateCommand();
+        command.setLastName("Updated");
+        patientService.update(stale.getId(), command);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> patientRepository.delete(stale));
+        assertTrue(patientRepository.existsById(stale.getId()));
+    }
+
+    @Test
+    void testDelete_StaleDoctorVersion_ResultsInOptimisticLockingFailure() {
+        Doctor stale = saveDoctor();
+        doctorService.update(stale.getId(), FullUpdateDoctorCommand.builder().lastName("Updated").build());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> doctorRepository.delete(stale));
+        assertTrue(doctorRepository.existsById(stale.getId()));
+    }
+
+    private Doctor saveDoctor() {
+        return doctorRepository.save(Doctor.builder()
+                .firstName("Deleted")
+                .lastName("Doctor")
+                .specializations(Set.of(Specialization.FAMILY_MEDICINE))
+                .build());
+    }
+
+    private Patient savePatient(Doctor doctor) {
+        return patientRepository.save(Patient.builder()
+                .firstName("Deleted")
+                .lastName("Patient")
+                .disease(Disease.FLU)
+                .doctor(doctor)
+                .build());
+    }
+}
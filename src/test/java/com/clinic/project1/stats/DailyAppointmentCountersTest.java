@@ -0,0 +1,150 @@
+package com.clinic.project1.stats;
+
+import com.clinic.project1.common.Specialization;
+import com.clinic.project1.model.dto.DailyStatsDto;
+import com.clinic.project1.model.projection.DailyDoctorCountView;
+import com.clinic.project1.model.projection.DoctorSpecializationView;
+import com.clinic.project1.repository.AppointmentRepository;
+import com.clinic.project1.repository.DoctorRepository;
+import com.clinic.project1.schedule.SpecializationIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DailyAppointmentCountersTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private SpecializationIndex specializationIndex;
+
+    @InjectMocks
+    private DailyAppointmentCounters dailyAppointmentCounters;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(specializationIndex.specializationsOf(1))
+                .thenReturn(EnumSet.of(Specialization.FAMILY_MEDICINE, Specialization.PULMONOLOGY));
+        lenient().when(specializationIndex.specializationsOf(2))
+                .thenReturn(EnumSet.of(Specialization.FAMILY_MEDICINE));
+    }
+
+    @Test
+    void testRecord_CountsPerDoctorAndSpecialization() {
+        dailyAppointmentCounters.record(1, DAY.atTime(8, 0));
+        dailyAppointmentCounters.record(1, DAY.atTime(9, 0));
+        dailyAppointmentCounters.record(2, DAY.atTime(8, 0));
+
+        DailyStatsDto stats = dailyAppointmentCounters.countsOf(DAY);
+
+        assertEquals(3, stats.getTotal());
+        assertEquals(Map.of(1, 2L, 2, 1L), stats.getDoctors());
+        assertEquals(Map.of(Specialization.FAMILY_MEDICINE, 3L, Specialization.PULMONOLOGY, 2L),
+                stats.getSpecializations());
+    }
+
+    @Test
+    void testMoveAndRemove_CountsFollowTheAppointment() {
+        dailyAppointmentCounters.record(1, DAY.atTime(8, 0));
+        dailyAppointmentCounters.record(2, DAY.atTime(8, 0));
+
+        dailyAppointmentCounters.move(1, DAY.atTime(8, 0), 2, DAY.plusDays(1).atTime(8, 0));
+        dailyAppointmentCounters.remove(2, DAY.atTime(8, 0));
+
+        assertEquals(0, dailyAppointmentCounters.countsOf(DAY).getTotal());
+        assertEquals(Map.of(), dailyAppointmentCounters.countsOf(DAY).getDoctors());
+        assertEquals(Map.of(2, 1L), dailyAppointmentCounters.countsOf(DAY.plusDays(1)).getDoctors());
+        assertEquals(Map.of(Specialization.FAMILY_MEDICINE, 1L),
+                dailyAppointmentCounters.countsOf(DAY.plusDays(1)).getSpecializations());
+    }
+
+    @Test
+    void testRebuild_ReplacesIncrementalCountsWithBookedAndArchivedCounts() {
+        dailyAppointmentCounters.record(2, DAY.atTime(8, 0));
+        DoctorSpecializationView specialization = mock(DoctorSpecializationView.class);
+        when(specialization.getDoctorId()).thenReturn(1);
+        when(specialization.getSpecialization()).thenReturn(Specialization.PULMONOLOGY);
+        when(doctorRepository.findAllSpecializations()).thenReturn(List.of(specialization));
+        List<DailyDoctorCountView> bookedAndArchived = List.of(count(1, DAY, 2), count(1, DAY.minusDays(40), 5));
+        when(appointmentRepository.countBookedAndArchivedByDoctorAndDay()).thenReturn(bookedAndArchived);
+
+        dailyAppointmentCounters.rebuild();
+
+        assertEquals(Map.of(1, 2L), dailyAppointmentCounters.countsOf(DAY).getDoctors());
+        assertEquals(Map.of(Specialization.PULMONOLOGY, 2L), dailyAppointmentCounters.countsOf(DAY).getSpecializations());
+        assertEquals(5, dailyAppointmentCounters.countsOf(DAY.minusDays(40)).getTotal());
+    }
+
+    @Test
+    void testRebuild_BookingCommittedDuringRecount_KeepsLiveCountOfTheBookedDoctor() throws Exception {
+        dailyAppointmentCounters.record(1, DAY.atTime(8, 0));
+        CountDownLatch recounting = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        List<DailyDoctorCountView> bookedAndArchived = List.of(count(1, DAY, 3), count(2, DAY, 1));
+        when(appointmentRepository.countBookedAndArchivedByDoctorAndDay()).thenAnswer(invocation -> {
+            recounting.countDown();
+            committed.await();
+            return bookedAndArchived;
+        });
+        Thread rebuild = new Thread(dailyAppointmentCounters::rebuild);
+        rebuild.start();
+        assertTrue(recounting.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, dailyAppointmentCounters.countsOf(DAY).getTotal());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            dailyAppointmentCounters.record(2, DAY.atTime(9, 0));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+                synchronizations.forEach(synchronization ->
+                        synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            });
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(2, dailyAppointmentCounters.countsOf(DAY).getTotal());
+
+        committed.countDown();
+        rebuild.join(5000);
+
+        assertEquals(4, dailyAppointmentCounters.countsOf(DAY).getTotal());
+        assertEquals(Map.of(1, 3L, 2, 1L), dailyAppointmentCounters.countsOf(DAY).getDoctors());
+    }
+
+    private static DailyDoctorCountView count(int doctorId, LocalDate day, long appointmentCount) {
+        DailyDoctorCountView view = mock(DailyDoctorCountView.class);
+        when(view.getDoctorId()).thenReturn(doctorId);
+        when(view.getDay()).thenReturn(day);
+        when(view.getAppointmentCount()).thenReturn(appointmentCount);
+        return view;
+    }
+}